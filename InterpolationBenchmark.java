@@ -0,0 +1,105 @@
+import functions.*;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Сравнение скорости вычисления значения табулированной функции:
+ * бинарный поиск отрезка (ArrayTabulatedFunction.getFunctionValue)
+ * против прежнего линейного просмотра с начала таблицы.
+ *
+ * Замеры построены по схеме JMH: несколько прогревочных итераций,
+ * затем измерительные итерации, результат вычислений накапливается,
+ * чтобы JIT не мог удалить вызовы.
+ */
+public class InterpolationBenchmark {
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final int QUERIES = 2_000;
+
+    // Накопитель результатов (аналог Blackhole в JMH)
+    private static double sink;
+
+    public static void main(String[] args) {
+        int[] sizes = {1_000, 10_000, 100_000, 1_000_000};
+
+        System.out.println("=== Сравнение линейного и бинарного поиска отрезка ===");
+        System.out.printf("%-12s %-18s %-18s %-10s%n", "точек", "линейный, нс/оп", "бинарный, нс/оп", "ускорение");
+        System.out.println("------------------------------------------------------------");
+
+        for (int size : sizes) {
+            double[] values = new double[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = Math.sin(i * 1e-3);
+            }
+            ArrayTabulatedFunction function = new ArrayTabulatedFunction(0, size - 1, values);
+
+            double[] xs = new double[size];
+            for (int i = 0; i < size; i++) {
+                xs[i] = function.getPointX(i);
+            }
+
+            double[] queries = new double[QUERIES];
+            Random random = new Random(42);
+            for (int i = 0; i < QUERIES; i++) {
+                queries[i] = random.nextDouble() * (size - 1);
+            }
+
+            double linear = measure(() -> {
+                for (double x : queries) {
+                    sink += linearScan(xs, values, x);
+                }
+            });
+            double binary = measure(() -> {
+                for (double x : queries) {
+                    sink += function.getFunctionValue(x);
+                }
+            });
+
+            System.out.printf(Locale.US, "%-12d %-18.1f %-18.1f %-10.1f%n",
+                    size, linear / QUERIES, binary / QUERIES, linear / binary);
+        }
+
+        System.out.println("(контрольная сумма: " + sink + ")");
+    }
+
+    /**
+     * Выполняет прогрев и замеры, возвращает среднее время одной итерации в наносекундах.
+     */
+    private static double measure(Runnable body) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            body.run();
+        }
+
+        long total = 0;
+        for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            body.run();
+            total += System.nanoTime() - start;
+        }
+        return (double) total / MEASUREMENT_ITERATIONS;
+    }
+
+    /**
+     * Прежний алгоритм getFunctionValue: просмотр отрезков с начала таблицы.
+     */
+    private static double linearScan(double[] xs, double[] ys, double x) {
+        if (x < xs[0] || x > xs[xs.length - 1]) {
+            return Double.NaN;
+        }
+
+        for (int i = 0; i < xs.length - 1; i++) {
+            double x1 = xs[i];
+            double x2 = xs[i + 1];
+
+            if (Math.abs(x - x1) < 1e-10) return ys[i];
+            if (Math.abs(x - x2) < 1e-10) return ys[i + 1];
+
+            if (x > x1 && x < x2) {
+                return ys[i] + (ys[i + 1] - ys[i]) / (x2 - x1) * (x - x1);
+            }
+        }
+
+        return Double.NaN;
+    }
+}
@@ -259,7 +259,7 @@ public class Main {
         // Создаем композицию ln(exp(x)) = x
         Function composition = Functions.composition(lnFunc, expFunc);
 
-        // Табулируем композицию - получим ArrayTabulatedFunction (Serializable)
+        // Табулируем композицию - получим UniformTabulatedFunction (Serializable)
         TabulatedFunction tabulated = TabulatedFunctions.tabulate(composition, 0, 10, 11);
 
         System.out.println("Создана функция ln(exp(x)) = x (теоретически):");
@@ -1,11 +1,30 @@
 package functions;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 
 public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
     private static final long serialVersionUID = 2L;
-    private FunctionPoint[] points;
-    private int size;
+
+    // Сериализованная форма совпадает с прежней (массив точек и их количество),
+    // поэтому ранее записанные объекты по-прежнему читаются
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("points", FunctionPoint[].class),
+            new ObjectStreamField("size", int.class)
+    };
+
+    // Координаты хранятся в параллельных массивах примитивов: xs[i], ys[i] - i-я точка
+    private transient double[] xs;
+    private transient double[] ys;
+    private transient int size;
+    // Индекс накопленных интегралов, создаётся при первом интегрировании
+    private transient volatile IntegralIndex integralIndex;
+    // Индекс экстремумов на отрезках, создаётся при первом запросе
+    private transient volatile ExtremaIndex extremaIndex;
 
     // Конструкторы (остаются без изменений)
     public ArrayTabulatedFunction(double leftX, double rightX, int pointsCount) {
@@ -16,13 +35,13 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
             throw new IllegalArgumentException("leftX must be less than rightX");
         }
 
-        this.points = new FunctionPoint[pointsCount + 2];
+        this.xs = new double[pointsCount + 2];
+        this.ys = new double[pointsCount + 2];
         this.size = pointsCount;
         double step = (rightX - leftX) / (pointsCount - 1);
 
         for (int i = 0; i < pointsCount; i++) {
-            double x = leftX + i * step;
-            this.points[i] = new FunctionPoint(x, 0);
+            this.xs[i] = leftX + i * step;
         }
     }
 
@@ -35,14 +54,15 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         }
 
         int pointsCount = values.length;
-        this.points = new FunctionPoint[pointsCount + 2];
+        this.xs = new double[pointsCount + 2];
+        this.ys = new double[pointsCount + 2];
         this.size = pointsCount;
         double step = (rightX - leftX) / (pointsCount - 1);
 
         for (int i = 0; i < pointsCount; i++) {
-            double x = leftX + i * step;
-            this.points[i] = new FunctionPoint(x, values[i]);
+            this.xs[i] = leftX + i * step;
         }
+        System.arraycopy(values, 0, this.ys, 0, pointsCount);
     }
 
     public ArrayTabulatedFunction(FunctionPoint[] pointsArray) {
@@ -68,14 +88,27 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
             }
         }
 
-        this.points = new FunctionPoint[pointsArray.length + 2];
+        this.xs = new double[pointsArray.length + 2];
+        this.ys = new double[pointsArray.length + 2];
         this.size = pointsArray.length;
 
         for (int i = 0; i < pointsArray.length; i++) {
-            this.points[i] = new FunctionPoint(pointsArray[i]);
+            this.xs[i] = pointsArray[i].getX();
+            this.ys[i] = pointsArray[i].getY();
         }
     }
 
+    /**
+     * Создаёт функцию, которая забирает массивы координат себе без копирования и проверок.
+     * Только для вызывающих из пакета, которые сами построили массивы одинаковой длины
+     * не менее 2 со строго возрастающими x и больше их не используют
+     */
+    ArrayTabulatedFunction(double[] xs, double[] ys) {
+        this.xs = xs;
+        this.ys = ys;
+        this.size = xs.length;
+    }
+
     // === РЕАЛИЗАЦИЯ МЕТОДОВ ИЗ TabulatedFunction ===
     @Override
     public int getPointsCount() {
@@ -87,7 +120,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         if (index < 0 || index >= size) {
             throw new FunctionPointIndexOutOfBoundsException("Index out of bounds: " + index);
         }
-        return new FunctionPoint(points[index]);
+        return new FunctionPoint(xs[index], ys[index]);
     }
 
     @Override
@@ -103,7 +136,10 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
             );
         }
 
-        points[index] = new FunctionPoint(point);
+        xs[index] = point.getX();
+        ys[index] = point.getY();
+        notifyPointChanged(index);
+        DomainCache.domainChanged();
     }
 
     @Override
@@ -111,7 +147,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         if (index < 0 || index >= size) {
             throw new FunctionPointIndexOutOfBoundsException("Index out of bounds: " + index);
         }
-        return points[index].getX();
+        return xs[index];
     }
 
     @Override
@@ -120,8 +156,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
             throw new FunctionPointIndexOutOfBoundsException("Index out of bounds: " + index);
         }
 
-        double currentX = points[index].getX();
-        double y = points[index].getY();
+        double currentX = xs[index];
 
         if (Math.abs(currentX - x) < 1e-10) {
             return;
@@ -136,12 +171,14 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
 
         // Проверка на существование точки с таким же x
         for (int i = 0; i < size; i++) {
-            if (i != index && Math.abs(points[i].getX() - x) < 1e-10) {
+            if (i != index && Math.abs(xs[i] - x) < 1e-10) {
                 throw new InappropriateFunctionPointException("Point with x=" + x + " already exists");
             }
         }
 
-        points[index] = new FunctionPoint(x, y);
+        xs[index] = x;
+        notifyPointChanged(index);
+        DomainCache.domainChanged();
     }
 
     @Override
@@ -149,7 +186,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         if (index < 0 || index >= size) {
             throw new FunctionPointIndexOutOfBoundsException("Index out of bounds: " + index);
         }
-        return points[index].getY();
+        return ys[index];
     }
 
     @Override
@@ -158,8 +195,8 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
             throw new FunctionPointIndexOutOfBoundsException("Index out of bounds: " + index);
         }
 
-        double x = points[index].getX();
-        points[index] = new FunctionPoint(x, y);
+        ys[index] = y;
+        notifyPointChanged(index);
     }
 
     @Override
@@ -171,14 +208,16 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
             throw new IllegalStateException("Cannot delete point - function must have at least 2 points");
         }
 
-        System.arraycopy(points, index + 1, points, index, size - index - 1);
-        points[size - 1] = null;
+        System.arraycopy(xs, index + 1, xs, index, size - index - 1);
+        System.arraycopy(ys, index + 1, ys, index, size - index - 1);
         size--;
+        notifyPointsChanged();
+        DomainCache.domainChanged();
 
-        double loadFactor = (double) size / points.length;
+        double loadFactor = (double) size / xs.length;
         double minLoadFactor = 0.5;
 
-        if (loadFactor + Math.ulp(loadFactor) < minLoadFactor && points.length > 4) {
+        if (loadFactor + Math.ulp(loadFactor) < minLoadFactor && xs.length > 4) {
             shrinkArray();
         }
     }
@@ -186,24 +225,51 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
     @Override
     public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
         int insertIndex = 0;
-        while (insertIndex < size && points[insertIndex].getX() < point.getX()) {
+        while (insertIndex < size && xs[insertIndex] < point.getX()) {
             insertIndex++;
         }
 
-        if (insertIndex < size && Math.abs(points[insertIndex].getX() - point.getX()) < 1e-10) {
+        if (insertIndex < size && Math.abs(xs[insertIndex] - point.getX()) < 1e-10) {
             throw new InappropriateFunctionPointException("Point with x=" + point.getX() + " already exists");
         }
 
-        if (size >= points.length) {
+        if (size >= xs.length) {
             expandArray();
         }
 
         if (insertIndex < size) {
-            System.arraycopy(points, insertIndex, points, insertIndex + 1, size - insertIndex);
+            System.arraycopy(xs, insertIndex, xs, insertIndex + 1, size - insertIndex);
+            System.arraycopy(ys, insertIndex, ys, insertIndex + 1, size - insertIndex);
         }
 
-        points[insertIndex] = new FunctionPoint(point);
+        xs[insertIndex] = point.getX();
+        ys[insertIndex] = point.getY();
         size++;
+        notifyPointsChanged();
+        DomainCache.domainChanged();
+    }
+
+    /**
+     * Добавляет точки одним слиянием с массивами xs/ys за O(n + m log m)
+     * вместо сдвига массивов при каждой вставке.
+     */
+    @Override
+    public void addPoints(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        FunctionPoint[] batch = TabulatedFunctions.sortForInsertion(points);
+        if (batch.length == 0) {
+            return;
+        }
+
+        int newSize = size + batch.length;
+        double[] newXs = new double[newSize + 2];
+        double[] newYs = new double[newSize + 2];
+        TabulatedFunctions.mergeForInsertion(xs, ys, size, batch, newXs, newYs);
+
+        xs = newXs;
+        ys = newYs;
+        size = newSize;
+        notifyPointsChanged();
+        DomainCache.domainChanged();
     }
 
     @Override
@@ -230,12 +296,12 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
     // === РЕАЛИЗАЦИЯ МЕТОДОВ ИЗ Function (которые теперь наследуются) ===
     @Override
     public double getLeftDomainBorder() {
-        return points[0].getX();
+        return xs[0];
     }
 
     @Override
     public double getRightDomainBorder() {
-        return points[size - 1].getX();
+        return xs[size - 1];
     }
 
     @Override
@@ -244,53 +310,300 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
             return Double.NaN;
         }
 
-        for (int i = 0; i < size - 1; i++) {
-            double x1 = points[i].getX();
-            double x2 = points[i + 1].getX();
+        // Отрезок [xs[i], xs[i + 1]] ищется бинарным поиском за O(log n)
+        int i = findSegment(x);
+        double x1 = xs[i];
+        double x2 = xs[i + 1];
+
+        if (Math.abs(x - x1) < 1e-10) return ys[i];
+        if (Math.abs(x - x2) < 1e-10) return ys[i + 1];
+
+        return linearInterpolation(x1, ys[i], x2, ys[i + 1], x);
+    }
+
+    /**
+     * Вычисляет значение и наклон отрезка ломаной, содержащего x; в узле берётся
+     * наклон отрезка справа от него, в последнем узле - слева
+     */
+    @Override
+    public void getValueAndDerivative(double x, double[] result) {
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+            result[0] = Double.NaN;
+            result[1] = Double.NaN;
+            return;
+        }
+
+        int i = findSegment(x);
+        double x1 = xs[i];
+        double x2 = xs[i + 1];
+        result[1] = (ys[i + 1] - ys[i]) / (x2 - x1);
+
+        if (Math.abs(x - x1) < 1e-10) {
+            result[0] = ys[i];
+        } else if (Math.abs(x - x2) < 1e-10) {
+            result[0] = ys[i + 1];
+        } else {
+            result[0] = linearInterpolation(x1, ys[i], x2, ys[i + 1], x);
+        }
+    }
 
-            if (Math.abs(x - x1) < 1e-10) return points[i].getY();
-            if (Math.abs(x - x2) < 1e-10) return points[i + 1].getY();
+    /**
+     * Вычисляет значения для массива точек без проверок индексов и виртуальных вызовов.
+     * Если точки упорядочены по возрастанию, отрезок каждой следующей точки ищется
+     * экспоненциальным поиском вправо от предыдущего, иначе - бинарным поиском для каждой точки.
+     * Для упорядоченных точек это O(log n + k log(n / k)), то есть не хуже поиска для каждой точки.
+     */
+    @Override
+    public void getFunctionValues(double[] arguments, int argumentsOffset, double[] out, int outOffset, int length) {
+        boolean sorted = TabulatedFunctions.isSorted(arguments, argumentsOffset, length);
+        double left = xs[0];
+        double right = xs[size - 1];
+        int i = -1;
+        for (int j = 0; j < length; j++) {
+            double x = arguments[argumentsOffset + j];
+            if (x < left || x > right) {
+                out[outOffset + j] = Double.NaN;
+                continue;
+            }
+
+            if (sorted && i >= 0) {
+                i = findSegmentFrom(i, x);
+            } else {
+                i = findSegment(x);
+            }
+            double x1 = xs[i];
+            double x2 = xs[i + 1];
+
+            if (Math.abs(x - x1) < 1e-10) {
+                out[outOffset + j] = ys[i];
+            } else if (Math.abs(x - x2) < 1e-10) {
+                out[outOffset + j] = ys[i + 1];
+            } else {
+                out[outOffset + j] = linearInterpolation(x1, ys[i], x2, ys[i + 1], x);
+            }
+        }
+    }
+
+    /**
+     * Создаёт курсор, читающий массивы xs/ys напрямую, без проверок индексов.
+     * @return новый курсор
+     */
+    @Override
+    public TabulatedFunctionCursor cursor() {
+        return new IndexedTabulatedFunctionCursor(this) {
+            @Override
+            protected int pointsCount() {
+                return size;
+            }
+
+            @Override
+            protected double pointX(int index) {
+                return xs[index];
+            }
 
-            if (x > x1 && x < x2) {
-                return linearInterpolation(points[i], points[i + 1], x);
+            @Override
+            protected double pointY(int index) {
+                return ys[index];
             }
+        };
+    }
+
+    /**
+     * Возвращает индекс накопленных интегралов, читающий массивы xs/ys напрямую.
+     * Индекс создаётся при первом обращении и обновляется при изменении точек.
+     */
+    synchronized IntegralIndex integralIndex() {
+        if (integralIndex == null) {
+            integralIndex = new IntegralIndex(this) {
+                @Override
+                protected int pointsCount() {
+                    return size;
+                }
+
+                @Override
+                protected double pointX(int index) {
+                    return xs[index];
+                }
+
+                @Override
+                protected double pointY(int index) {
+                    return ys[index];
+                }
+            };
+        }
+        return integralIndex;
+    }
+
+    /**
+     * Возвращает индекс экстремумов на отрезках (дерево отрезков) с прямым доступом к хранилищу
+     */
+    synchronized ExtremaIndex extremaIndex() {
+        if (extremaIndex == null) {
+            extremaIndex = new ExtremaIndex.SegmentTree(this) {
+                @Override
+                protected int pointsCount() {
+                    return size;
+                }
+
+                @Override
+                protected double pointX(int index) {
+                    return xs[index];
+                }
+
+                @Override
+                protected double pointY(int index) {
+                    return ys[index];
+                }
+            };
+        }
+        return extremaIndex;
+    }
+
+    /**
+     * Обновляет индексы интегралов и экстремумов после изменения координат точки index
+     */
+    private void notifyPointChanged(int index) {
+        if (integralIndex != null) {
+            integralIndex.pointChanged(index);
+        }
+        if (extremaIndex != null) {
+            extremaIndex.pointChanged(index);
+        }
+    }
+
+    /**
+     * Сбрасывает индексы интегралов и экстремумов после добавления или удаления точек
+     */
+    private void notifyPointsChanged() {
+        if (integralIndex != null) {
+            integralIndex.invalidate();
+        }
+        if (extremaIndex != null) {
+            extremaIndex.invalidate();
+        }
+    }
+
+    // === СЕРИАЛИЗАЦИЯ ===
+
+    /**
+     * Записывает объект в прежнем формате: массив FunctionPoint и количество точек.
+     * Массив точек создается только на время записи.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        FunctionPoint[] points = new FunctionPoint[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = new FunctionPoint(xs[i], ys[i]);
+        }
+
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("points", points);
+        fields.put("size", size);
+        out.writeFields();
+    }
+
+    /**
+     * Восстанавливает объект из прежнего формата и раскладывает точки по массивам xs/ys.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        FunctionPoint[] points = (FunctionPoint[]) fields.get("points", null);
+        int count = fields.get("size", 0);
+
+        if (points == null || count < 2 || count > points.length) {
+            throw new InvalidObjectException("Invalid data: points count must be at least 2, got " + count);
         }
 
-        return Double.NaN;
+        xs = new double[count + 2];
+        ys = new double[count + 2];
+        for (int i = 0; i < count; i++) {
+            if (points[i] == null) {
+                throw new InvalidObjectException("Invalid data: point " + i + " is null");
+            }
+            if (i > 0 && points[i].getX() <= xs[i - 1]) {
+                throw new InvalidObjectException("Invalid data: points are not strictly increasing by x");
+            }
+            xs[i] = points[i].getX();
+            ys[i] = points[i].getY();
+        }
+        size = count;
     }
 
     // Вспомогательные методы
+
+    /**
+     * Находит индекс левого конца отрезка, содержащего x.
+     * @param x точка внутри области определения
+     * @return наибольший i из [0, size - 2], для которого xs[i] <= x
+     */
+    private int findSegment(double x) {
+        int low = 0;
+        int high = size - 1;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (xs[mid] <= x) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Находит индекс левого конца отрезка, содержащего x, экспоненциальным поиском вправо от from.
+     * @param from индекс, для которого xs[from] <= x
+     * @param x точка внутри области определения
+     * @return наибольший i из [from, size - 2], для которого xs[i] <= x
+     */
+    private int findSegmentFrom(int from, double x) {
+        int low = from;
+        int high = from + 1;
+        int step = 1;
+        while (high < size - 1 && xs[high] <= x) {
+            low = high;
+            step <<= 1;
+            high = Math.min(from + step, size - 1);
+        }
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (xs[mid] <= x) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
     private boolean isValidXPosition(int index, double newX) {
-        if (index > 0 && newX <= points[index - 1].getX()) {
+        if (index > 0 && newX <= xs[index - 1]) {
             return false;
         }
-        if (index < size - 1 && newX >= points[index + 1].getX()) {
+        if (index < size - 1 && newX >= xs[index + 1]) {
             return false;
         }
         return true;
     }
 
     private void expandArray() {
-        int newCapacity = points.length * 3 / 2 + 1;
-        FunctionPoint[] newArray = new FunctionPoint[newCapacity];
-        System.arraycopy(points, 0, newArray, 0, size);
-        points = newArray;
+        resize(xs.length * 3 / 2 + 1);
     }
 
     private void shrinkArray() {
-        int newCapacity = Math.max(size + 2, points.length / 2);
-        FunctionPoint[] newArray = new FunctionPoint[newCapacity];
-        System.arraycopy(points, 0, newArray, 0, size);
-        points = newArray;
+        resize(Math.max(size + 2, xs.length / 2));
     }
 
-    private double linearInterpolation(FunctionPoint p1, FunctionPoint p2, double x) {
-        double x1 = p1.getX();
-        double y1 = p1.getY();
-        double x2 = p2.getX();
-        double y2 = p2.getY();
+    private void resize(int newCapacity) {
+        double[] newXs = new double[newCapacity];
+        double[] newYs = new double[newCapacity];
+        System.arraycopy(xs, 0, newXs, 0, size);
+        System.arraycopy(ys, 0, newYs, 0, size);
+        xs = newXs;
+        ys = newYs;
+    }
 
+    private static double linearInterpolation(double x1, double y1, double x2, double y2, double x) {
         double k = (y2 - y1) / (x2 - x1);
         return y1 + k * (x - x1);
     }
-}
\ No newline at end of file
+}
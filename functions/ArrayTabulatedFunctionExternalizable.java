@@ -6,6 +6,10 @@ public class ArrayTabulatedFunctionExternalizable implements TabulatedFunction,
     private static final long serialVersionUID = 5L;
     private FunctionPoint[] points;
     private int size;
+    // Индекс накопленных интегралов, создаётся при первом интегрировании
+    private transient volatile IntegralIndex integralIndex;
+    // Индекс экстремумов на отрезках, создаётся при первом запросе
+    private transient volatile ExtremaIndex extremaIndex;
 
     // Конструктор по умолчанию, необходимый для Externalizable
     public ArrayTabulatedFunctionExternalizable() {
@@ -112,6 +116,9 @@ public class ArrayTabulatedFunctionExternalizable implements TabulatedFunction,
 
             points[i] = new FunctionPoint(x, y);
         }
+        // readExternal может быть вызван и для уже использованного объекта
+        notifyPointsChanged();
+        DomainCache.domainChanged();
     }
 
     // Реализация методов TabulatedFunction
@@ -142,6 +149,8 @@ public class ArrayTabulatedFunctionExternalizable implements TabulatedFunction,
         }
 
         points[index] = new FunctionPoint(point);
+        notifyPointChanged(index);
+        DomainCache.domainChanged();
     }
 
     @Override
@@ -179,6 +188,8 @@ public class ArrayTabulatedFunctionExternalizable implements TabulatedFunction,
         }
 
         points[index] = new FunctionPoint(x, y);
+        notifyPointChanged(index);
+        DomainCache.domainChanged();
     }
 
     @Override
@@ -197,6 +208,7 @@ public class ArrayTabulatedFunctionExternalizable implements TabulatedFunction,
 
         double x = points[index].getX();
         points[index] = new FunctionPoint(x, y);
+        notifyPointChanged(index);
     }
 
     @Override
@@ -211,6 +223,8 @@ public class ArrayTabulatedFunctionExternalizable implements TabulatedFunction,
         System.arraycopy(points, index + 1, points, index, size - index - 1);
         points[size - 1] = null;
         size--;
+        notifyPointsChanged();
+        DomainCache.domainChanged();
     }
 
     // Исправлено: добавлено throws
@@ -239,6 +253,8 @@ public class ArrayTabulatedFunctionExternalizable implements TabulatedFunction,
 
         points[insertIndex] = new FunctionPoint(point);
         size++;
+        notifyPointsChanged();
+        DomainCache.domainChanged();
     }
 
     @Override
@@ -288,22 +304,136 @@ public class ArrayTabulatedFunctionExternalizable implements TabulatedFunction,
             return Double.NaN;
         }
 
-        for (int i = 0; i < size - 1; i++) {
-            double x1 = points[i].getX();
-            double x2 = points[i + 1].getX();
+        // Отрезок ищется бинарным поиском за O(log n)
+        int i = findSegment(x);
 
-            if (Math.abs(x - x1) < 1e-10) return points[i].getY();
-            if (Math.abs(x - x2) < 1e-10) return points[i + 1].getY();
+        if (Math.abs(x - points[i].getX()) < 1e-10) return points[i].getY();
+        if (Math.abs(x - points[i + 1].getX()) < 1e-10) return points[i + 1].getY();
 
-            if (x > x1 && x < x2) {
-                return linearInterpolation(points[i], points[i + 1], x);
-            }
+        return linearInterpolation(points[i], points[i + 1], x);
+    }
+
+    /**
+     * Вычисляет значение и наклон отрезка ломаной, содержащего x; в узле берётся
+     * наклон отрезка справа от него, в последнем узле - слева
+     */
+    @Override
+    public void getValueAndDerivative(double x, double[] result) {
+        if (size == 0 || x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+            result[0] = Double.NaN;
+            result[1] = Double.NaN;
+            return;
         }
 
-        return Double.NaN;
+        int i = findSegment(x);
+        FunctionPoint left = points[i];
+        FunctionPoint right = points[i + 1];
+        result[1] = (right.getY() - left.getY()) / (right.getX() - left.getX());
+
+        if (Math.abs(x - left.getX()) < 1e-10) {
+            result[0] = left.getY();
+        } else if (Math.abs(x - right.getX()) < 1e-10) {
+            result[0] = right.getY();
+        } else {
+            result[0] = linearInterpolation(left, right, x);
+        }
     }
 
     // Вспомогательные методы
+
+    /**
+     * Находит индекс левого конца отрезка, содержащего x.
+     * @param x точка внутри области определения
+     * @return наибольший i из [0, size - 2], для которого points[i].getX() <= x
+     */
+    private int findSegment(double x) {
+        int low = 0;
+        int high = size - 1;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (points[mid].getX() <= x) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Возвращает индекс накопленных интегралов, читающий массив точек напрямую
+     */
+    synchronized IntegralIndex integralIndex() {
+        if (integralIndex == null) {
+            integralIndex = new IntegralIndex(this) {
+                @Override
+                protected int pointsCount() {
+                    return size;
+                }
+
+                @Override
+                protected double pointX(int index) {
+                    return points[index].getX();
+                }
+
+                @Override
+                protected double pointY(int index) {
+                    return points[index].getY();
+                }
+            };
+        }
+        return integralIndex;
+    }
+
+    /**
+     * Возвращает индекс экстремумов на отрезках (дерево отрезков) с прямым доступом к хранилищу
+     */
+    synchronized ExtremaIndex extremaIndex() {
+        if (extremaIndex == null) {
+            extremaIndex = new ExtremaIndex.SegmentTree(this) {
+                @Override
+                protected int pointsCount() {
+                    return size;
+                }
+
+                @Override
+                protected double pointX(int index) {
+                    return points[index].getX();
+                }
+
+                @Override
+                protected double pointY(int index) {
+                    return points[index].getY();
+                }
+            };
+        }
+        return extremaIndex;
+    }
+
+    /**
+     * Обновляет индексы интегралов и экстремумов после изменения координат точки index
+     */
+    private void notifyPointChanged(int index) {
+        if (integralIndex != null) {
+            integralIndex.pointChanged(index);
+        }
+        if (extremaIndex != null) {
+            extremaIndex.pointChanged(index);
+        }
+    }
+
+    /**
+     * Сбрасывает индексы интегралов и экстремумов после добавления или удаления точек
+     */
+    private void notifyPointsChanged() {
+        if (integralIndex != null) {
+            integralIndex.invalidate();
+        }
+        if (extremaIndex != null) {
+            extremaIndex.invalidate();
+        }
+    }
+
     private boolean isValidXPosition(int index, double newX) {
         if (index > 0 && newX <= points[index - 1].getX() + 1e-10) {
             return false;
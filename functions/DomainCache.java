@@ -0,0 +1,167 @@
+package functions;
+
+import functions.basic.Cos;
+import functions.basic.Exp;
+import functions.basic.Log;
+import functions.basic.Sin;
+import functions.basic.Tan;
+import functions.meta.Affine;
+import functions.meta.Chebyshev;
+import functions.meta.Composition;
+import functions.meta.Mult;
+import functions.meta.NaryMult;
+import functions.meta.NarySum;
+import functions.meta.Polynomial;
+import functions.meta.Power;
+import functions.meta.Scale;
+import functions.meta.Shift;
+import functions.meta.Sum;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Кэш границ области определения мета-функции.
+ *
+ * При создании кэш определяет по дочерним функциям, может ли область определения измениться:
+ * <ul>
+ *   <li>если все листья дерева - базовые функции, константы, многочлены и другие функции
+ *       с неизменной областью, границы вычисляются один раз при первом обращении;</li>
+ *   <li>если среди листьев есть изменяемые табулированные функции этого пакета, границы
+ *       пересчитываются, только когда какая-либо из них изменила абсциссы своих точек -
+ *       такие функции увеличивают общий счётчик изменений (эпоху);</li>
+ *   <li>если среди листьев есть неизвестные функции, границы вычисляются при каждом обращении.</li>
+ * </ul>
+ */
+public final class DomainCache {
+    private static final int FIXED = 0;
+    private static final int TRACKED = 1;
+    private static final int UNTRACKED = 2;
+
+    // Увеличивается после каждого изменения абсцисс изменяемой табулированной функции
+    private static final AtomicLong EPOCH = new AtomicLong();
+
+    private final DoubleSupplier left;
+    private final DoubleSupplier right;
+    private final int mode;
+    private volatile Snapshot snapshot;
+
+    private static final class Snapshot {
+        final double left;
+        final double right;
+        final long epoch;
+
+        Snapshot(double left, double right, long epoch) {
+            this.left = left;
+            this.right = right;
+            this.epoch = epoch;
+        }
+    }
+
+    /**
+     * Создаёт кэш границ
+     * @param left вычисление левой границы по дочерним функциям
+     * @param right вычисление правой границы по дочерним функциям
+     * @param children дочерние функции, от которых зависят границы
+     */
+    public DomainCache(DoubleSupplier left, DoubleSupplier right, Function... children) {
+        this.left = left;
+        this.right = right;
+        this.mode = modeOf(children);
+    }
+
+    /**
+     * Возвращает левую границу области определения
+     * @return левая граница
+     */
+    public double getLeft() {
+        if (mode == UNTRACKED) {
+            return left.getAsDouble();
+        }
+        return current().left;
+    }
+
+    /**
+     * Возвращает правую границу области определения
+     * @return правая граница
+     */
+    public double getRight() {
+        if (mode == UNTRACKED) {
+            return right.getAsDouble();
+        }
+        return current().right;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null || (mode == TRACKED && current.epoch != EPOCH.get())) {
+            // Эпоха читается до вычисления границ: изменение во время вычисления
+            // увеличит её, и следующий вызов пересчитает границы заново
+            long epoch = EPOCH.get();
+            current = new Snapshot(left.getAsDouble(), right.getAsDouble(), epoch);
+            snapshot = current;
+        }
+        return current;
+    }
+
+    /**
+     * Сообщает, что абсциссы точек изменяемой табулированной функции изменились.
+     * Вызывается после изменения.
+     */
+    static void domainChanged() {
+        EPOCH.incrementAndGet();
+    }
+
+    private static int modeOf(Function... functions) {
+        int mode = FIXED;
+        for (Function function : functions) {
+            mode = Math.max(mode, modeOf(function));
+            if (mode == UNTRACKED) {
+                break;
+            }
+        }
+        return mode;
+    }
+
+    private static int modeOf(Function f) {
+        Class<?> type = f.getClass();
+        if (type == Functions.Constant.class || type == Functions.Identity.class || type == Polynomial.class
+                || type == Chebyshev.class || type == Sin.class || type == Cos.class || type == Tan.class || type == Exp.class || type == Log.class
+                || type == MappedTabulatedFunction.class) {
+            return FIXED;
+        }
+        if (type == ArrayTabulatedFunction.class || type == LinkedListTabulatedFunction.class
+                || type == UniformTabulatedFunction.class || type == OffHeapTabulatedFunction.class
+                || type == ArrayTabulatedFunctionExternalizable.class) {
+            return TRACKED;
+        }
+        if (type == Sum.class) {
+            return modeOf(((Sum) f).getFirst(), ((Sum) f).getSecond());
+        }
+        if (type == Mult.class) {
+            return modeOf(((Mult) f).getFirst(), ((Mult) f).getSecond());
+        }
+        if (type == Composition.class) {
+            return modeOf(((Composition) f).getOuter(), ((Composition) f).getInner());
+        }
+        if (type == Power.class) {
+            return modeOf(((Power) f).getBaseFunction());
+        }
+        if (type == Shift.class) {
+            return modeOf(((Shift) f).getFunction());
+        }
+        if (type == Scale.class) {
+            return modeOf(((Scale) f).getFunction());
+        }
+        if (type == Affine.class) {
+            return modeOf(((Affine) f).getFunction());
+        }
+        if (type == NarySum.class) {
+            return modeOf(((NarySum) f).getTerms());
+        }
+        if (type == NaryMult.class) {
+            return modeOf(((NaryMult) f).getFactors());
+        }
+        return UNTRACKED;
+    }
+}
@@ -0,0 +1,380 @@
+package functions;
+
+/**
+ * Индекс для поиска наименьшего и наибольшего значений табулированной функции на отрезке.
+ *
+ * Экстремум ломаной на [a, b] достигается либо в концах отрезка, либо в узлах
+ * внутри него, поэтому запрос сводится к двум бинарным поискам, интерполяции
+ * в концах и поиску экстремумов среди ординат узлов с номерами из диапазона.
+ * Последнее делают подклассы: дерево отрезков {@link SegmentTree} для изменяемых
+ * функций (запрос и обновление точки за O(log n)) и разреженная таблица
+ * {@link SparseTable} для неизменяемых (запрос за O(1)).
+ *
+ * Индекс строится при первом запросе. Функция-владелец сообщает об изменениях так же,
+ * как для {@link IntegralIndex}: {@link #pointChanged(int)} при изменении координат точки
+ * и {@link #invalidate()} при добавлении и удалении точек.
+ * Доступ к точкам идёт через методы pointsCount/pointX/pointY, которые
+ * реализации с прямым доступом к хранилищу могут переопределить.
+ *
+ * Как и у {@link IntegralIndex}, запросы перестраивают общие массивы подклассов, поэтому
+ * query и уведомления об изменениях синхронизированы: одновременные запросы из нескольких
+ * потоков безопасны, пока функция не изменяется.
+ */
+abstract class ExtremaIndex {
+    private final TabulatedFunction function;
+
+    ExtremaIndex(TabulatedFunction function) {
+        this.function = function;
+    }
+
+    protected int pointsCount() {
+        return function.getPointsCount();
+    }
+
+    protected double pointX(int index) {
+        return function.getPointX(index);
+    }
+
+    protected double pointY(int index) {
+        return function.getPointY(index);
+    }
+
+    /**
+     * Сообщает, что изменились координаты точки index, а число точек осталось прежним
+     */
+    abstract void pointChanged(int index);
+
+    /**
+     * Сообщает, что точки добавлены или удалены; индекс будет перестроен при следующем запросе
+     */
+    abstract void invalidate();
+
+    /**
+     * Находит номера точек с наименьшей и наибольшей ординатой среди точек с номерами из [from, to]
+     * (при равенстве - с меньшим номером) и записывает их в result[0] и result[1]
+     */
+    abstract void extrema(int from, int to, int[] result);
+
+    /**
+     * Находит экстремумы ломаной на отрезке [a, b]
+     * @param a левый конец, не меньше левой границы области определения
+     * @param b правый конец, не меньше a и не больше правой границы области определения
+     * @return экстремумы и точки, в которых они достигаются
+     */
+    synchronized RangeExtrema query(double a, double b) {
+        int i = findSegment(a);
+        double ya = valueAt(i, a);
+        double min = ya;
+        double argMin = a;
+        double max = ya;
+        double argMax = a;
+        if (b == a) {
+            return new RangeExtrema(min, argMin, max, argMax);
+        }
+
+        // Узлы строго внутри (a, b): узлы в самих концах учтены значениями в концах
+        int j = findSegment(b);
+        int from = i + 1;
+        int to = pointX(j) == b ? j - 1 : j;
+        if (from <= to) {
+            int[] result = new int[2];
+            extrema(from, to, result);
+            double y = pointY(result[0]);
+            if (y < min) {
+                min = y;
+                argMin = pointX(result[0]);
+            }
+            y = pointY(result[1]);
+            if (y > max) {
+                max = y;
+                argMax = pointX(result[1]);
+            }
+        }
+
+        double yb = valueAt(j, b);
+        if (yb < min) {
+            min = yb;
+            argMin = b;
+        }
+        if (yb > max) {
+            max = yb;
+            argMax = b;
+        }
+        return new RangeExtrema(min, argMin, max, argMax);
+    }
+
+    /**
+     * Значение ломаной в точке x отрезка segment
+     */
+    private double valueAt(int segment, double x) {
+        double x1 = pointX(segment);
+        if (x == x1) {
+            return pointY(segment);
+        }
+        double x2 = pointX(segment + 1);
+        if (x == x2) {
+            return pointY(segment + 1);
+        }
+        double y1 = pointY(segment);
+        return y1 + (pointY(segment + 1) - y1) * (x - x1) / (x2 - x1);
+    }
+
+    /**
+     * Наибольший i из [0, n - 2], для которого pointX(i) <= x
+     */
+    private int findSegment(double x) {
+        int low = 0;
+        int high = pointsCount() - 1;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (pointX(mid) <= x) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Выбирает из точек i и j ту, у которой ордината меньше (при равенстве - с меньшим номером).
+     * Отрицательный номер означает отсутствие точки, ордината NaN проигрывает любой другой
+     */
+    static int pickMin(int i, double yi, int j, double yj) {
+        if (j < 0 || Double.isNaN(yj)) {
+            return i < 0 ? j : i;
+        }
+        if (i < 0 || Double.isNaN(yi)) {
+            return j;
+        }
+        if (yi != yj) {
+            return yi < yj ? i : j;
+        }
+        return Math.min(i, j);
+    }
+
+    /**
+     * Выбирает из точек i и j ту, у которой ордината больше (при равенстве - с меньшим номером)
+     */
+    static int pickMax(int i, double yi, int j, double yj) {
+        if (j < 0 || Double.isNaN(yj)) {
+            return i < 0 ? j : i;
+        }
+        if (i < 0 || Double.isNaN(yi)) {
+            return j;
+        }
+        if (yi != yj) {
+            return yi > yj ? i : j;
+        }
+        return Math.min(i, j);
+    }
+
+    /**
+     * Дерево отрезков над ординатами точек. Ординаты копируются в массив, в узлах дерева
+     * хранятся номера точек с наименьшей и наибольшей ординатой в поддереве.
+     * Изменение точки пересчитывает путь от листа до корня за O(log n).
+     */
+    static class SegmentTree extends ExtremaIndex {
+        private double[] values;
+        // Листья - с номера capacity; пустые листья содержат -1
+        private int[] minTree;
+        private int[] maxTree;
+        private int capacity;
+        private boolean valid;
+
+        SegmentTree(TabulatedFunction function) {
+            super(function);
+        }
+
+        @Override
+        synchronized void pointChanged(int index) {
+            if (!valid) {
+                return;
+            }
+            values[index] = pointY(index);
+            for (int node = (index + capacity) >>> 1; node >= 1; node >>>= 1) {
+                pull(node);
+            }
+        }
+
+        @Override
+        synchronized void invalidate() {
+            valid = false;
+        }
+
+        @Override
+        void extrema(int from, int to, int[] result) {
+            if (!valid) {
+                rebuild();
+            }
+
+            int min = -1;
+            int max = -1;
+            int left = from + capacity;
+            int right = to + capacity + 1;
+            while (left < right) {
+                if ((left & 1) == 1) {
+                    min = pickMin(min, value(min), minTree[left], value(minTree[left]));
+                    max = pickMax(max, value(max), maxTree[left], value(maxTree[left]));
+                    left++;
+                }
+                if ((right & 1) == 1) {
+                    right--;
+                    min = pickMin(min, value(min), minTree[right], value(minTree[right]));
+                    max = pickMax(max, value(max), maxTree[right], value(maxTree[right]));
+                }
+                left >>>= 1;
+                right >>>= 1;
+            }
+            result[0] = min;
+            result[1] = max;
+        }
+
+        private void rebuild() {
+            int size = pointsCount();
+            capacity = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+            if (values == null || values.length < size || minTree.length != 2 * capacity) {
+                values = new double[size];
+                minTree = new int[2 * capacity];
+                maxTree = new int[2 * capacity];
+            }
+            for (int i = 0; i < capacity; i++) {
+                if (i < size) {
+                    values[i] = pointY(i);
+                    minTree[capacity + i] = i;
+                    maxTree[capacity + i] = i;
+                } else {
+                    minTree[capacity + i] = -1;
+                    maxTree[capacity + i] = -1;
+                }
+            }
+            for (int node = capacity - 1; node >= 1; node--) {
+                pull(node);
+            }
+            valid = true;
+        }
+
+        private void pull(int node) {
+            int l = 2 * node;
+            int r = l + 1;
+            minTree[node] = pickMin(minTree[l], value(minTree[l]), minTree[r], value(minTree[r]));
+            maxTree[node] = pickMax(maxTree[l], value(maxTree[l]), maxTree[r], value(maxTree[r]));
+        }
+
+        private double value(int index) {
+            return index < 0 ? Double.NaN : values[index];
+        }
+    }
+
+    /**
+     * Разреженная таблица над блоками по 32 точки: table[k][i] - номер точки с экстремальной
+     * ординатой в блоках [i, i + 2^k). Запрос просматривает не более двух неполных блоков
+     * и сравнивает два перекрывающихся диапазона таблицы, то есть выполняется за O(1).
+     * Таблица по блокам занимает O((n / 32) log n) памяти вместо O(n log n), что важно
+     * для больших отображённых в память функций. Для неизменяемых функций:
+     * любое изменение приводит к полному перестроению.
+     */
+    static class SparseTable extends ExtremaIndex {
+        private static final int BLOCK_SHIFT = 5;
+        private static final int BLOCK = 1 << BLOCK_SHIFT;
+
+        private int[][] minTable;
+        private int[][] maxTable;
+        private boolean valid;
+
+        SparseTable(TabulatedFunction function) {
+            super(function);
+        }
+
+        @Override
+        synchronized void pointChanged(int index) {
+            valid = false;
+        }
+
+        @Override
+        synchronized void invalidate() {
+            valid = false;
+        }
+
+        @Override
+        void extrema(int from, int to, int[] result) {
+            if (!valid) {
+                rebuild();
+            }
+
+            int firstBlock = from >>> BLOCK_SHIFT;
+            int lastBlock = to >>> BLOCK_SHIFT;
+            result[0] = -1;
+            result[1] = -1;
+            if (firstBlock == lastBlock) {
+                scan(from, to, result);
+                return;
+            }
+
+            scan(from, ((firstBlock + 1) << BLOCK_SHIFT) - 1, result);
+            scan(lastBlock << BLOCK_SHIFT, to, result);
+            if (firstBlock + 1 <= lastBlock - 1) {
+                int left = firstBlock + 1;
+                int right = lastBlock - 1;
+                int level = 31 - Integer.numberOfLeadingZeros(right - left + 1);
+                int other = right - (1 << level) + 1;
+                combine(minTable[level][left], maxTable[level][left], result);
+                combine(minTable[level][other], maxTable[level][other], result);
+            }
+        }
+
+        private void rebuild() {
+            int size = pointsCount();
+            int blocks = (size + BLOCK - 1) >>> BLOCK_SHIFT;
+            int levels = 32 - Integer.numberOfLeadingZeros(blocks);
+            minTable = new int[levels][];
+            maxTable = new int[levels][];
+
+            minTable[0] = new int[blocks];
+            maxTable[0] = new int[blocks];
+            int[] result = new int[2];
+            for (int block = 0; block < blocks; block++) {
+                result[0] = -1;
+                result[1] = -1;
+                scan(block << BLOCK_SHIFT, Math.min(size, (block + 1) << BLOCK_SHIFT) - 1, result);
+                minTable[0][block] = result[0];
+                maxTable[0][block] = result[1];
+            }
+
+            for (int level = 1; level < levels; level++) {
+                int half = 1 << (level - 1);
+                int count = blocks - (1 << level) + 1;
+                int[] previousMin = minTable[level - 1];
+                int[] previousMax = maxTable[level - 1];
+                int[] min = new int[count];
+                int[] max = new int[count];
+                for (int i = 0; i < count; i++) {
+                    int l = previousMin[i];
+                    int r = previousMin[i + half];
+                    min[i] = pickMin(l, y(l), r, y(r));
+                    l = previousMax[i];
+                    r = previousMax[i + half];
+                    max[i] = pickMax(l, y(l), r, y(r));
+                }
+                minTable[level] = min;
+                maxTable[level] = max;
+            }
+            valid = true;
+        }
+
+        private void scan(int from, int to, int[] result) {
+            for (int i = from; i <= to; i++) {
+                combine(i, i, result);
+            }
+        }
+
+        private void combine(int min, int max, int[] result) {
+            result[0] = pickMin(result[0], y(result[0]), min, y(min));
+            result[1] = pickMax(result[1], y(result[1]), max, y(max));
+        }
+
+        private double y(int index) {
+            return index < 0 ? Double.NaN : pointY(index);
+        }
+    }
+}
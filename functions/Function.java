@@ -23,4 +23,75 @@ public interface Function {
      * @return значение функции в точке x
      */
     double getFunctionValue(double x);
+
+    /**
+     * Вычисляет значения функции сразу для массива точек: out[i] = getFunctionValue(xs[i]).
+     * Массивы xs и out могут совпадать.
+     * @param xs точки, в которых вычисляются значения
+     * @param out массив для результатов (длина не меньше xs.length)
+     * @throws IllegalArgumentException если массивы равны null или out короче xs
+     */
+    default void getFunctionValues(double[] xs, double[] out) {
+        if (xs == null || out == null) {
+            throw new IllegalArgumentException("Массивы не могут быть null");
+        }
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException(
+                    "Массив результатов короче массива точек: " + out.length + " < " + xs.length
+            );
+        }
+        getFunctionValues(xs, 0, out, 0, xs.length);
+    }
+
+    /**
+     * Вычисляет значения функции для диапазона массива точек:
+     * out[outOffset + i] = getFunctionValue(xs[xsOffset + i]) для i из [0, length).
+     * Массивы могут совпадать, если совпадают и смещения.
+     * Реализация по умолчанию вызывает getFunctionValue для каждой точки,
+     * классы функций переопределяют её, обрабатывая массив целиком.
+     * @param xs точки, в которых вычисляются значения
+     * @param xsOffset индекс первой точки в xs
+     * @param out массив для результатов
+     * @param outOffset индекс первого результата в out
+     * @param length количество точек
+     */
+    default void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            out[outOffset + i] = getFunctionValue(xs[xsOffset + i]);
+        }
+    }
+
+    /**
+     * Вычисляет значение функции и её производной в точке за один проход
+     * (прямой режим автоматического дифференцирования): result[0] = f(x), result[1] = f'(x).
+     * Результат записывается в переданный массив, поэтому вызов ничего не создаёт в куче
+     * и массив можно использовать повторно, например в итерациях метода Ньютона.
+     * Значение совпадает с getFunctionValue(x); вне области определения оба числа равны Double.NaN.
+     * Реализация по умолчанию вычисляет производную центральной разностью с шагом
+     * {@link Functions#DEFAULT_DERIVATIVE_EPSILON} * max(1, |x|), а у границы области
+     * определения - односторонней; классы функций переопределяют её точными формулами.
+     * @param x точка, в которой вычисляются значения
+     * @param result массив длины не меньше 2 для значения и производной
+     */
+    default void getValueAndDerivative(double x, double[] result) {
+        double value = getFunctionValue(x);
+        double h = Functions.DEFAULT_DERIVATIVE_EPSILON * Math.max(1, Math.abs(x));
+        double forward = getFunctionValue(x + h);
+        double backward = getFunctionValue(x - h);
+
+        double derivative;
+        if (Double.isNaN(value)) {
+            derivative = Double.NaN;
+        } else if (!Double.isNaN(forward) && !Double.isNaN(backward)) {
+            derivative = (forward - backward) / (2 * h);
+        } else if (!Double.isNaN(forward)) {
+            derivative = (forward - value) / h;
+        } else if (!Double.isNaN(backward)) {
+            derivative = (value - backward) / h;
+        } else {
+            derivative = Double.NaN;
+        }
+        result[0] = value;
+        result[1] = derivative;
+    }
 }
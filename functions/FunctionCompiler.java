@@ -0,0 +1,693 @@
+package functions;
+
+import functions.basic.Cos;
+import functions.basic.Exp;
+import functions.basic.Log;
+import functions.basic.Sin;
+import functions.basic.Tan;
+import functions.meta.Affine;
+import functions.meta.Composition;
+import functions.meta.Mult;
+import functions.meta.NaryMult;
+import functions.meta.NarySum;
+import functions.meta.Polynomial;
+import functions.meta.Power;
+import functions.meta.Scale;
+import functions.meta.Shift;
+import functions.meta.Sum;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Компилятор дерева функций в один класс.
+ *
+ * Узлы из пакетов basic и meta, константа и тождественная функция разворачиваются
+ * в один линейный метод getFunctionValue: вызовы Math.sin/exp/pow, арифметика
+ * и проверки области определения, причём каждая проверка или NaN сразу завершает
+ * метод с результатом Double.NaN - ровно так, как его в итоге вернуло бы дерево.
+ * Остальные функции (табулированные и пользовательские) сохраняются в полях
+ * сгенерированного класса и вызываются через интерфейс Function.
+ *
+ * Границы области определения поддеревьев без таких функций вычисляются
+ * при компиляции и записываются в код константами, границы остальных
+ * запрашиваются у узлов дерева при каждом вычислении.
+ *
+ * Метод getValueAndDerivative не компилируется и вызывается у исходного дерева.
+ *
+ * Класс загружается как скрытый (hidden) через MethodHandles.Lookup.defineHiddenClass
+ * и выгружается вместе с возвращённым объектом.
+ */
+class FunctionCompiler {
+    // Тело метода больше этого размера не генерируется: смещения переходов двухбайтовые
+    private static final int MAX_CODE_LENGTH = 32000;
+
+    private static final String FUNCTION = "functions/Function";
+    private static final String CLASS_NAME = "functions/CompiledFunction";
+
+    // Коды используемых инструкций JVM
+    private static final int DCONST_0 = 0x0e, SIPUSH = 0x11, LDC_W = 0x13, LDC2_W = 0x14;
+    private static final int DLOAD = 0x18, ALOAD_0 = 0x2a, ALOAD_1 = 0x2b, ALOAD_3 = 0x2d, AALOAD = 0x32, DSTORE = 0x39;
+    private static final int DADD = 0x63, DMUL = 0x6b, DDIV = 0x6f, DCMPL = 0x97, DCMPG = 0x98;
+    private static final int IFNE = 0x9a, IFLT = 0x9b, IFGT = 0x9d, IFLE = 0x9e;
+    private static final int DRETURN = 0xaf, ARETURN = 0xb0, RETURN = 0xb1;
+    private static final int GETFIELD = 0xb4, PUTFIELD = 0xb5, INVOKEVIRTUAL = 0xb6, INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8, INVOKEINTERFACE = 0xb9, CHECKCAST = 0xc0, WIDE = 0xc4;
+
+    private final ConstantPool pool = new ConstantPool();
+    private final Code code = new Code();
+    // Функции, сохраняемые в полях f0, f1, ...; f0 - корень дерева
+    private final List<Function> captured = new ArrayList<>();
+    private final Map<Function, Integer> capturedIndex = new IdentityHashMap<>();
+    private final Map<Function, Boolean> pure = new IdentityHashMap<>();
+    private final List<Integer> failJumps = new ArrayList<>();
+    // Слоты 0 - this, 1-2 - аргумент x
+    private int maxLocals = 3;
+
+    private FunctionCompiler() {
+    }
+
+    /**
+     * Компилирует дерево функций. Если тело метода или пул констант получаются
+     * слишком большими для одного класса, возвращается исходная функция.
+     * @param function корень дерева
+     * @return функция с тем же значением и той же областью определения
+     */
+    static Function compile(Function function) {
+        FunctionCompiler compiler = new FunctionCompiler();
+        compiler.capture(function);
+        byte[] bytes = compiler.generate(function);
+        if (bytes == null) {
+            return function;
+        }
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            MethodHandle constructor = lookup.findConstructor(lookup.lookupClass(),
+                    MethodType.methodType(void.class, Object[].class));
+            return (Function) constructor.invoke(compiler.captured.toArray());
+        } catch (Throwable e) {
+            throw new IllegalStateException("Не удалось загрузить скомпилированную функцию", e);
+        }
+    }
+
+    // ==================== Генерация кода выражения ====================
+
+    /**
+     * Генерирует код, оставляющий на стеке значение f в точке из слота arg.
+     * Перед вызовом стек операндов пуст, поэтому при каждом переходе на метку
+     * возврата NaN он также пуст.
+     */
+    private void emitValue(Function f, int arg) {
+        Class<?> type = f.getClass();
+
+        if (type == Functions.Constant.class) {
+            code.ldc2(pool.doubleConstant(((Functions.Constant) f).value));
+        } else if (type == Functions.Identity.class) {
+            code.dload(arg);
+        } else if (type == Sin.class || type == Cos.class || type == Tan.class || type == Exp.class) {
+            code.dload(arg);
+            String name = type == Sin.class ? "sin" : type == Cos.class ? "cos" : type == Tan.class ? "tan" : "exp";
+            code.invoke(INVOKESTATIC, pool.methodRef("java/lang/Math", name, "(D)D"));
+        } else if (type == Log.class) {
+            // if (x <= 0) return NaN; return Math.log(x) / Math.log(base)
+            code.dload(arg);
+            code.op(DCONST_0);
+            code.op(DCMPG);
+            failIf(IFLE);
+            code.dload(arg);
+            code.invoke(INVOKESTATIC, pool.methodRef("java/lang/Math", "log", "(D)D"));
+            code.ldc2(pool.doubleConstant(Math.log(((Log) f).getBase())));
+            code.op(DDIV);
+        } else if (type == Polynomial.class) {
+            double[] coefficients = ((Polynomial) f).getCoefficients();
+            int n = coefficients.length - 1;
+            code.ldc2(pool.doubleConstant(coefficients[n]));
+            for (int k = n - 1; k >= 0; k--) {
+                code.dload(arg);
+                code.op(DMUL);
+                code.ldc2(pool.doubleConstant(coefficients[k]));
+                code.op(DADD);
+            }
+        } else if (type == Sum.class) {
+            checkDomain(f, arg);
+            emitFold(new Function[]{((Sum) f).getFirst(), ((Sum) f).getSecond()}, arg, DADD);
+        } else if (type == NarySum.class) {
+            checkDomain(f, arg);
+            emitFold(((NarySum) f).getTerms(), arg, DADD);
+        } else if (type == Mult.class) {
+            checkDomain(f, arg);
+            emitFold(new Function[]{((Mult) f).getFirst(), ((Mult) f).getSecond()}, arg, DMUL);
+        } else if (type == NaryMult.class) {
+            checkDomain(f, arg);
+            emitFold(((NaryMult) f).getFactors(), arg, DMUL);
+        } else if (type == Power.class) {
+            Power power = (Power) f;
+            checkDomain(f, arg);
+            int base = emitChecked(power.getBaseFunction(), arg);
+            code.dload(base);
+            code.ldc2(pool.doubleConstant(power.getPower()));
+            code.invoke(INVOKESTATIC, pool.methodRef("java/lang/Math", "pow", "(DD)D"));
+        } else if (type == Shift.class) {
+            Shift shift = (Shift) f;
+            checkDomain(f, arg);
+            // yShift + g(x + xShift)
+            code.dload(arg);
+            code.ldc2(pool.doubleConstant(shift.getXShift()));
+            code.op(DADD);
+            int value = emitInner(shift.getFunction());
+            code.ldc2(pool.doubleConstant(shift.getYShift()));
+            code.dload(value);
+            code.op(DADD);
+        } else if (type == Scale.class) {
+            Scale scale = (Scale) f;
+            checkDomain(f, arg);
+            // yScale * g(xScale * x)
+            code.ldc2(pool.doubleConstant(scale.getXScale()));
+            code.dload(arg);
+            code.op(DMUL);
+            int value = emitInner(scale.getFunction());
+            code.ldc2(pool.doubleConstant(scale.getYScale()));
+            code.dload(value);
+            code.op(DMUL);
+        } else if (type == Affine.class) {
+            Affine affine = (Affine) f;
+            checkDomain(f, arg);
+            // yScale * g(xScale * x + xShift) + yShift
+            code.ldc2(pool.doubleConstant(affine.getXScale()));
+            code.dload(arg);
+            code.op(DMUL);
+            code.ldc2(pool.doubleConstant(affine.getXShift()));
+            code.op(DADD);
+            int value = emitInner(affine.getFunction());
+            code.ldc2(pool.doubleConstant(affine.getYScale()));
+            code.dload(value);
+            code.op(DMUL);
+            code.ldc2(pool.doubleConstant(affine.getYShift()));
+            code.op(DADD);
+        } else if (type == Composition.class) {
+            Composition composition = (Composition) f;
+            checkDomain(f, arg);
+            int inner = emitChecked(composition.getInner(), arg);
+            checkDomain(composition.getOuter(), inner);
+            emitValue(composition.getOuter(), inner);
+        } else {
+            // Неизвестная функция: вызов через сохранённое поле
+            code.op(ALOAD_0);
+            code.u1u2(GETFIELD, fieldRef(f));
+            code.dload(arg);
+            code.invokeInterface(pool.interfaceMethodRef(FUNCTION, "getFunctionValue", "(D)D"), 3);
+        }
+    }
+
+    /**
+     * Для Shift/Scale/Affine: сохраняет преобразованный аргумент со стека в новый слот,
+     * проверяет его по области определения g, вычисляет g и проверяет результат на NaN.
+     * @return слот со значением g
+     */
+    private int emitInner(Function g) {
+        int argument = newLocal();
+        code.dstore(argument);
+        checkDomain(g, argument);
+        return emitChecked(g, argument);
+    }
+
+    /**
+     * Вычисляет функции по очереди и сворачивает их значения операцией op слева направо
+     */
+    private void emitFold(Function[] functions, int arg, int op) {
+        int accumulator = emitChecked(functions[0], arg);
+        for (int i = 1; i < functions.length; i++) {
+            int value = emitChecked(functions[i], arg);
+            code.dload(accumulator);
+            code.dload(value);
+            code.op(op);
+            code.dstore(accumulator);
+        }
+        code.dload(accumulator);
+    }
+
+    /**
+     * Вычисляет f, сохраняет значение в новый слот и возвращает NaN, если оно равно NaN
+     */
+    private int emitChecked(Function f, int arg) {
+        emitValue(f, arg);
+        int slot = newLocal();
+        code.dstore(slot);
+        code.dload(slot);
+        code.dload(slot);
+        code.op(DCMPL);
+        failIf(IFNE);
+        return slot;
+    }
+
+    /**
+     * Возвращает NaN, если x < f.getLeftDomainBorder() или x > f.getRightDomainBorder()
+     */
+    private void checkDomain(Function f, int arg) {
+        if (isPure(f)) {
+            double left = f.getLeftDomainBorder();
+            double right = f.getRightDomainBorder();
+            if (left != Double.NEGATIVE_INFINITY) {
+                code.dload(arg);
+                code.ldc2(pool.doubleConstant(left));
+                code.op(DCMPG);
+                failIf(IFLT);
+            }
+            if (right != Double.POSITIVE_INFINITY) {
+                code.dload(arg);
+                code.ldc2(pool.doubleConstant(right));
+                code.op(DCMPL);
+                failIf(IFGT);
+            }
+        } else {
+            code.dload(arg);
+            emitBorder(f, "getLeftDomainBorder");
+            code.op(DCMPG);
+            failIf(IFLT);
+            code.dload(arg);
+            emitBorder(f, "getRightDomainBorder");
+            code.op(DCMPL);
+            failIf(IFGT);
+        }
+    }
+
+    private void emitBorder(Function f, String method) {
+        code.op(ALOAD_0);
+        code.u1u2(GETFIELD, fieldRef(f));
+        code.invokeInterface(pool.interfaceMethodRef(FUNCTION, method, "()D"), 1);
+    }
+
+    private void failIf(int opcode) {
+        failJumps.add(code.length());
+        code.u1u2(opcode, 0);
+    }
+
+    private int newLocal() {
+        int slot = maxLocals;
+        maxLocals += 2;
+        return slot;
+    }
+
+    // ==================== Анализ дерева ====================
+
+    /**
+     * Сохраняет в полях корень и все узлы, которые вызываются или у которых
+     * запрашиваются границы во время вычисления
+     */
+    private void capture(Function root) {
+        captured.add(root);
+        capturedIndex.put(root, 0);
+    }
+
+    private int fieldRef(Function f) {
+        Integer index = capturedIndex.get(f);
+        if (index == null) {
+            index = captured.size();
+            captured.add(f);
+            capturedIndex.put(f, index);
+        }
+        return pool.fieldRef(CLASS_NAME, "f" + index, "L" + FUNCTION + ";");
+    }
+
+    /**
+     * Проверяет, что поддерево состоит только из узлов, которые разворачиваются в код
+     * и не могут измениться, так что его границы можно вычислить заранее
+     */
+    private boolean isPure(Function f) {
+        Boolean cached = pure.get(f);
+        if (cached != null) {
+            return cached;
+        }
+
+        Class<?> type = f.getClass();
+        boolean result;
+        if (type == Functions.Constant.class || type == Functions.Identity.class || type == Polynomial.class
+                || type == Sin.class || type == Cos.class || type == Tan.class || type == Exp.class || type == Log.class) {
+            result = true;
+        } else if (type == Sum.class) {
+            result = isPure(((Sum) f).getFirst()) && isPure(((Sum) f).getSecond());
+        } else if (type == Mult.class) {
+            result = isPure(((Mult) f).getFirst()) && isPure(((Mult) f).getSecond());
+        } else if (type == NarySum.class) {
+            result = allPure(((NarySum) f).getTerms());
+        } else if (type == NaryMult.class) {
+            result = allPure(((NaryMult) f).getFactors());
+        } else if (type == Power.class) {
+            result = isPure(((Power) f).getBaseFunction());
+        } else if (type == Shift.class) {
+            result = isPure(((Shift) f).getFunction());
+        } else if (type == Scale.class) {
+            result = isPure(((Scale) f).getFunction());
+        } else if (type == Affine.class) {
+            result = isPure(((Affine) f).getFunction());
+        } else if (type == Composition.class) {
+            result = isPure(((Composition) f).getOuter()) && isPure(((Composition) f).getInner());
+        } else {
+            result = false;
+        }
+
+        pure.put(f, result);
+        return result;
+    }
+
+    private boolean allPure(Function[] functions) {
+        for (Function function : functions) {
+            if (!isPure(function)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ==================== Сборка класса ====================
+
+    /**
+     * Собирает файл класса; возвращает null, если тело метода слишком велико
+     */
+    private byte[] generate(Function root) {
+        emitValue(root, 1);
+        code.op(DRETURN);
+        int failLabel = code.length();
+        if (!failJumps.isEmpty()) {
+            code.ldc2(pool.doubleConstant(Double.NaN));
+            code.op(DRETURN);
+        }
+        if (code.length() > MAX_CODE_LENGTH || maxLocals > 0xffff) {
+            return null;
+        }
+        for (int jump : failJumps) {
+            code.patch(jump + 1, failLabel - jump);
+        }
+        byte[] valueCode = code.toByteArray();
+
+        byte[] leftCode = borderMethod(root, "getLeftDomainBorder");
+        byte[] rightCode = borderMethod(root, "getRightDomainBorder");
+        // Значение и производная вычисляются деревом: f0.getValueAndDerivative(x, result)
+        byte[] dualCode = new Code()
+                .op(ALOAD_0).u1u2(GETFIELD, fieldRef(root))
+                .dload(1).op(ALOAD_3)
+                .invokeInterface(pool.interfaceMethodRef(FUNCTION, "getValueAndDerivative", "(D[D)V"), 4)
+                .op(RETURN).toByteArray();
+        byte[] toStringCode = new Code()
+                .op(ALOAD_0).u1u2(GETFIELD, fieldRef(root))
+                .invoke(INVOKEVIRTUAL, pool.methodRef("java/lang/Object", "toString", "()Ljava/lang/String;"))
+                .op(ARETURN).toByteArray();
+
+        // Конструктор: super(); f_i = (Function) captured[i]
+        Code init = new Code()
+                .op(ALOAD_0)
+                .invoke(INVOKESPECIAL, pool.methodRef("java/lang/Object", "<init>", "()V"));
+        for (int i = 0; i < captured.size(); i++) {
+            init.op(ALOAD_0).op(ALOAD_1);
+            if (i < 0x8000) {
+                init.u1u2(SIPUSH, i);
+            } else {
+                init.u1u2(LDC_W, pool.integerConstant(i));
+            }
+            init.op(AALOAD)
+                    .u1u2(CHECKCAST, pool.classRef(FUNCTION))
+                    .u1u2(PUTFIELD, pool.fieldRef(CLASS_NAME, "f" + i, "L" + FUNCTION + ";"));
+        }
+        init.op(RETURN);
+        byte[] initCode = init.toByteArray();
+
+        int thisClass = pool.classRef(CLASS_NAME);
+        int superClass = pool.classRef("java/lang/Object");
+        int functionInterface = pool.classRef(FUNCTION);
+        int codeName = pool.utf8("Code");
+        int stackMapName = pool.utf8("StackMapTable");
+        int fieldDescriptor = pool.utf8("L" + FUNCTION + ";");
+        int[] fieldNames = new int[captured.size()];
+        for (int i = 0; i < fieldNames.length; i++) {
+            fieldNames[i] = pool.utf8("f" + i);
+        }
+        int initName = pool.utf8("<init>");
+        int initDescriptor = pool.utf8("([Ljava/lang/Object;)V");
+        int valueName = pool.utf8("getFunctionValue");
+        int valueDescriptor = pool.utf8("(D)D");
+        int leftName = pool.utf8("getLeftDomainBorder");
+        int rightName = pool.utf8("getRightDomainBorder");
+        int borderDescriptor = pool.utf8("()D");
+        int dualName = pool.utf8("getValueAndDerivative");
+        int dualDescriptor = pool.utf8("(D[D)V");
+        int toStringName = pool.utf8("toString");
+        int toStringDescriptor = pool.utf8("()Ljava/lang/String;");
+        if (pool.size() > 0xffff) {
+            return null;
+        }
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(52);
+            pool.write(out);
+            out.writeShort(0x0031); // public final super
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1);
+            out.writeShort(functionInterface);
+
+            out.writeShort(fieldNames.length);
+            for (int name : fieldNames) {
+                out.writeShort(0x0012); // private final
+                out.writeShort(name);
+                out.writeShort(fieldDescriptor);
+                out.writeShort(0);
+            }
+
+            out.writeShort(6);
+            writeMethod(out, initName, initDescriptor, codeName, initCode, 4, 2, null, 0);
+            byte[] frame = null;
+            if (!failJumps.isEmpty()) {
+                // Один кадр на метке возврата NaN: локальные переменные this и x, стек пуст
+                ByteArrayOutputStream frameBytes = new ByteArrayOutputStream();
+                DataOutputStream frameOut = new DataOutputStream(frameBytes);
+                frameOut.writeShort(1);
+                frameOut.writeByte(255);
+                frameOut.writeShort(failLabel);
+                frameOut.writeShort(2);
+                frameOut.writeByte(7);
+                frameOut.writeShort(thisClass);
+                frameOut.writeByte(3);
+                frameOut.writeShort(0);
+                frame = frameBytes.toByteArray();
+            }
+            writeMethod(out, valueName, valueDescriptor, codeName, valueCode, 6, maxLocals, frame, stackMapName);
+            writeMethod(out, leftName, borderDescriptor, codeName, leftCode, 2, 1, null, 0);
+            writeMethod(out, rightName, borderDescriptor, codeName, rightCode, 2, 1, null, 0);
+            writeMethod(out, dualName, dualDescriptor, codeName, dualCode, 4, 4, null, 0);
+            writeMethod(out, toStringName, toStringDescriptor, codeName, toStringCode, 1, 1, null, 0);
+
+            out.writeShort(0);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private byte[] borderMethod(Function root, String method) {
+        Code border = new Code();
+        if (isPure(root)) {
+            double value = method.equals("getLeftDomainBorder")
+                    ? root.getLeftDomainBorder()
+                    : root.getRightDomainBorder();
+            border.ldc2(pool.doubleConstant(value));
+        } else {
+            border.op(ALOAD_0)
+                    .u1u2(GETFIELD, fieldRef(root))
+                    .invokeInterface(pool.interfaceMethodRef(FUNCTION, method, "()D"), 1);
+        }
+        return border.op(DRETURN).toByteArray();
+    }
+
+    private static void writeMethod(DataOutputStream out, int name, int descriptor, int codeName, byte[] code,
+                                    int maxStack, int maxLocals, byte[] stackMap, int stackMapName)
+            throws IOException {
+        out.writeShort(0x0001); // public
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+        out.writeShort(codeName);
+        int attributesLength = stackMap == null ? 0 : 6 + stackMap.length;
+        out.writeInt(12 + code.length + attributesLength);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0); // таблица исключений
+        if (stackMap == null) {
+            out.writeShort(0);
+        } else {
+            out.writeShort(1);
+            out.writeShort(stackMapName);
+            out.writeInt(stackMap.length);
+            out.write(stackMap);
+        }
+    }
+
+    /**
+     * Буфер байт-кода метода
+     */
+    private static class Code {
+        private byte[] bytes = new byte[256];
+        private int length;
+
+        int length() {
+            return length;
+        }
+
+        Code op(int opcode) {
+            if (length == bytes.length) {
+                bytes = java.util.Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            bytes[length++] = (byte) opcode;
+            return this;
+        }
+
+        Code u1u2(int opcode, int operand) {
+            return op(opcode).op(operand >>> 8).op(operand);
+        }
+
+        Code ldc2(int index) {
+            return u1u2(LDC2_W, index);
+        }
+
+        Code invoke(int opcode, int index) {
+            return u1u2(opcode, index);
+        }
+
+        Code invokeInterface(int index, int argumentSlots) {
+            return u1u2(INVOKEINTERFACE, index).op(argumentSlots).op(0);
+        }
+
+        Code dload(int slot) {
+            return local(DLOAD, slot);
+        }
+
+        Code dstore(int slot) {
+            return local(DSTORE, slot);
+        }
+
+        private Code local(int opcode, int slot) {
+            if (slot > 0xff) {
+                return op(WIDE).u1u2(opcode, slot);
+            }
+            return op(opcode).op(slot);
+        }
+
+        void patch(int position, int value) {
+            bytes[position] = (byte) (value >>> 8);
+            bytes[position + 1] = (byte) value;
+        }
+
+        byte[] toByteArray() {
+            return java.util.Arrays.copyOf(bytes, length);
+        }
+    }
+
+    /**
+     * Пул констант класса с повторным использованием одинаковых записей
+     */
+    private static class ConstantPool {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> entries = new HashMap<>();
+        private int count = 1;
+
+        int utf8(String value) {
+            return entry("U" + value, 1, value, 0, 0, 1);
+        }
+
+        int integerConstant(int value) {
+            return entry("I" + value, 3, null, value, 0, 1);
+        }
+
+        int doubleConstant(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            return entry("D" + bits, 6, null, (int) (bits >>> 32), (int) bits, 2);
+        }
+
+        int classRef(String name) {
+            return entry("C" + name, 7, null, utf8(name), 0, 1);
+        }
+
+        int fieldRef(String owner, String name, String descriptor) {
+            return member("F", 9, owner, name, descriptor);
+        }
+
+        int methodRef(String owner, String name, String descriptor) {
+            return member("M", 10, owner, name, descriptor);
+        }
+
+        int interfaceMethodRef(String owner, String name, String descriptor) {
+            return member("IM", 11, owner, name, descriptor);
+        }
+
+        private int member(String kind, int tag, String owner, String name, String descriptor) {
+            String key = kind + owner + "." + name + descriptor;
+            Integer index = entries.get(key);
+            if (index != null) {
+                return index;
+            }
+            int ownerIndex = classRef(owner);
+            int nameAndType = entry("N" + name + descriptor, 12, null, utf8(name), utf8(descriptor), 1);
+            return entry(key, tag, null, ownerIndex, nameAndType, 1);
+        }
+
+        private int entry(String key, int tag, String text, int first, int second, int slots) {
+            Integer index = entries.get(key);
+            if (index != null) {
+                return index;
+            }
+            try {
+                out.writeByte(tag);
+                switch (tag) {
+                    case 1:
+                        out.writeUTF(text);
+                        break;
+                    case 3:
+                        out.writeInt(first);
+                        break;
+                    case 6:
+                        out.writeInt(first);
+                        out.writeInt(second);
+                        break;
+                    case 7:
+                        out.writeShort(first);
+                        break;
+                    default:
+                        out.writeShort(first);
+                        out.writeShort(second);
+                        break;
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            index = count;
+            count += slots;
+            entries.put(key, index);
+            return index;
+        }
+
+        int size() {
+            return count;
+        }
+
+        void write(DataOutputStream target) throws IOException {
+            target.writeShort(count);
+            target.write(bytes.toByteArray());
+        }
+    }
+}
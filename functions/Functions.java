@@ -2,6 +2,11 @@ package functions;
 
 import functions.meta.*;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
 /**
  * Утилитный класс для работы с функциями.
  * Содержит статические методы для создания мета-функций.
@@ -9,6 +14,22 @@ import functions.meta.*;
  */
 public class Functions {
 
+    /**
+     * Размер блока, которым мета-функции обрабатывают массивы точек в getFunctionValues.
+     * Промежуточные значения дочерних функций хранятся в буферах такого размера,
+     * которые используются повторно для всех блоков.
+     */
+    public static final int BATCH_BLOCK_SIZE = 1024;
+
+    /**
+     * Шаг численного дифференцирования, которым {@link #differentiate(Function)}
+     * дифференцирует функции, производную которых нельзя построить по правилам
+     */
+    public static final double DEFAULT_DERIVATIVE_EPSILON = 1e-6;
+
+    // Максимальная степень разложения, которую строит chebyshev
+    private static final int CHEBYSHEV_MAX_DEGREE = 1 << 12;
+
     /**
      * Приватный конструктор для предотвращения создания объектов класса.
      */
@@ -111,11 +132,12 @@ public class Functions {
 
     /**
      * Вспомогательный метод для создания полинома заданной степени.
+     * Полином вычисляется по схеме Горнера, см. {@link Polynomial}.
      * @param coefficients массив коэффициентов полинома, начиная со свободного члена
      * @return полиномиальная функция
      * @throws IllegalArgumentException если coefficients равен null или пуст
      */
-    public static Function polynomial(double[] coefficients) {
+    public static Polynomial polynomial(double[] coefficients) {
         if (coefficients == null) {
             throw new IllegalArgumentException("Массив коэффициентов не может быть null");
         }
@@ -123,18 +145,98 @@ public class Functions {
             throw new IllegalArgumentException("Массив коэффициентов не может быть пустым");
         }
 
-        // Создаем константную функцию для свободного члена
-        Function result = constant(coefficients[0]);
-
-        // Добавляем остальные члены полинома
-        for (int i = 1; i < coefficients.length; i++) {
-            if (Math.abs(coefficients[i]) > 1e-10) { // Пропускаем нулевые коэффициенты
-                Function term = mult(constant(coefficients[i]), power(identity(), i));
-                result = sum(result, term);
+        // Пропускаем нулевые коэффициенты при степенях x, как и прежде
+        double[] terms = coefficients.clone();
+        for (int i = 1; i < terms.length; i++) {
+            if (Math.abs(terms[i]) <= 1e-10) {
+                terms[i] = 0;
             }
         }
 
-        return result;
+        return new Polynomial(terms);
+    }
+
+    /**
+     * Строит приближение гладкой функции разложением по многочленам Чебышёва на отрезке [a, b].
+     * Функция вычисляется в точках Чебышёва-Лобатто cos(pi*k/n), коэффициенты находятся
+     * дискретным косинусным преобразованием. Число точек удваивается (уже вычисленные значения
+     * используются повторно), пока сумма модулей последней четверти коэффициентов не станет
+     * малой по сравнению с tolerance; затем отбрасываются старшие коэффициенты, сумма модулей
+     * которых не превышает tolerance / 2. Для аналитических функций (Exp, Sin, Cos и их
+     * комбинаций) достаточно нескольких десятков коэффициентов.
+     * Точность не может быть лучше погрешности округления значений функции.
+     * @param f приближаемая функция
+     * @param a левая граница отрезка
+     * @param b правая граница отрезка
+     * @param tolerance допустимая абсолютная погрешность приближения
+     * @return разложение по многочленам Чебышёва, см. {@link Chebyshev}
+     * @throws IllegalArgumentException если f равна null, a >= b, границы бесконечны
+     *                                  или выходят за область определения f
+     * @throws IllegalArgumentException если tolerance не положительна
+     * @throws IllegalArgumentException если f не определена или бесконечна в точке отрезка
+     *                                  или недостаточно гладкая для разложения степени 4096
+     */
+    public static Chebyshev chebyshev(Function f, double a, double b, double tolerance) {
+        if (f == null) {
+            throw new IllegalArgumentException("Функция не может быть null");
+        }
+        if (!(a < b) || Double.isInfinite(a) || Double.isInfinite(b)) {
+            throw new IllegalArgumentException("Границы отрезка должны быть конечными и a < b");
+        }
+        if (a < f.getLeftDomainBorder() || b > f.getRightDomainBorder()) {
+            throw new IllegalArgumentException("Отрезок [" + a + ", " + b + "] выходит за область определения функции");
+        }
+        if (!(tolerance > 0) || Double.isInfinite(tolerance)) {
+            throw new IllegalArgumentException("Погрешность должна быть положительным числом");
+        }
+
+        int n = 16;
+        double[] values = new double[n + 1];
+        for (int k = 0; k <= n; k++) {
+            values[k] = chebyshevSample(f, a, b, k, n);
+        }
+
+        while (true) {
+            double[] coefficients = chebyshevCoefficients(values, n);
+
+            double scale = 0;
+            for (double c : coefficients) {
+                scale = Math.max(scale, Math.abs(c));
+            }
+            // Ниже этого уровня коэффициенты определяются погрешностью округления
+            double threshold = Math.max(tolerance, n * Math.ulp(scale));
+
+            double tail = 0;
+            for (int j = 3 * n / 4; j <= n; j++) {
+                tail += Math.abs(coefficients[j]);
+            }
+            if (tail <= threshold / 4) {
+                int degree = n;
+                double dropped = Math.abs(coefficients[n]);
+                while (degree > 0 && dropped <= threshold / 2) {
+                    degree--;
+                    dropped += Math.abs(coefficients[degree]);
+                }
+                double[] result = new double[degree + 1];
+                System.arraycopy(coefficients, 0, result, 0, degree + 1);
+                return new Chebyshev(a, b, result);
+            }
+
+            if (n >= CHEBYSHEV_MAX_DEGREE) {
+                throw new IllegalArgumentException(
+                        "Функция недостаточно гладкая: погрешность " + tolerance
+                                + " не достигается разложением степени " + CHEBYSHEV_MAX_DEGREE
+                );
+            }
+
+            // Точки сетки из n промежутков - чётные точки сетки из 2n промежутков
+            double[] refined = new double[2 * n + 1];
+            for (int k = 0; k <= 2 * n; k++) {
+                refined[k] = k % 2 == 0 ? values[k / 2] : chebyshevSample(f, a, b, k, 2 * n);
+            }
+            values = refined;
+            n *= 2;
+        }
     }
 
     /**
@@ -157,7 +259,7 @@ public class Functions {
     /**
      * Внутренний класс для тождественной функции (паттерн Singleton).
      */
-    private static class Identity implements Function {
+    static class Identity implements Function {
         // Singleton экземпляр
         public static final Identity INSTANCE = new Identity();
 
@@ -178,6 +280,19 @@ public class Functions {
             return x;
         }
 
+        @Override
+        public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+            if (xs != out || xsOffset != outOffset) {
+                System.arraycopy(xs, xsOffset, out, outOffset, length);
+            }
+        }
+
+        @Override
+        public void getValueAndDerivative(double x, double[] result) {
+            result[0] = x;
+            result[1] = 1;
+        }
+
         @Override
         public String toString() {
             return "x";
@@ -187,8 +302,8 @@ public class Functions {
     /**
      * Внутренний класс для константной функции.
      */
-    private static class Constant implements Function {
-        private final double value;
+    static class Constant implements Function {
+        final double value;
 
         public Constant(double value) {
             this.value = value;
@@ -209,6 +324,17 @@ public class Functions {
             return value;
         }
 
+        @Override
+        public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+            java.util.Arrays.fill(out, outOffset, outOffset + length, value);
+        }
+
+        @Override
+        public void getValueAndDerivative(double x, double[] result) {
+            result[0] = value;
+            result[1] = 0;
+        }
+
         @Override
         public String toString() {
             return Double.toString(value);
@@ -237,17 +363,56 @@ public class Functions {
             throw new IllegalArgumentException("Левая граница должна быть меньше правой");
         }
 
-        // Создаем массив значений функции
+        // Заполняем массив точками сетки и вычисляем значения функции на месте одним пакетным вызовом
         double[] values = new double[pointsCount];
         double step = (rightX - leftX) / (pointsCount - 1);
 
         for (int i = 0; i < pointsCount; i++) {
-            double x = leftX + i * step;
-            values[i] = f.getFunctionValue(x);
+            values[i] = leftX + i * step;
         }
+        f.getFunctionValues(values, values);
 
-        // Создаем и возвращаем табулированную функцию
-        return new ArrayTabulatedFunction(leftX, rightX, values);
+        // Создаем и возвращаем табулированную функцию на равномерной сетке
+        return new UniformTabulatedFunction(leftX, rightX, values);
+    }
+
+    /**
+     * Вспомогательный метод для параллельной табуляции функции на заданном интервале.
+     * Результат побитово совпадает с {@link #tabulate(Function, double, double, int)},
+     * см. {@link TabulatedFunctions#tabulateParallel(Function, double, double, int, int, int)}.
+     * @param f функция для табуляции
+     * @param leftX левая граница интервала
+     * @param rightX правая граница интервала
+     * @param pointsCount количество точек табуляции
+     * @param parallelism число потоков
+     * @param threshold максимальное число точек, вычисляемых одной задачей
+     * @return табулированная функция
+     * @throws IllegalArgumentException если f равна null
+     * @throws IllegalArgumentException если pointsCount < 2, parallelism < 1 или threshold < 1
+     * @throws IllegalArgumentException если leftX >= rightX
+     */
+    public static TabulatedFunction tabulateParallel(Function f, double leftX, double rightX, int pointsCount,
+                                                     int parallelism, int threshold) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Число потоков должно быть положительным");
+        }
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Порог разбиения должен быть положительным");
+        }
+        if (parallelism == 1 || pointsCount <= threshold) {
+            return tabulate(f, leftX, rightX, pointsCount);
+        }
+        if (f == null) {
+            throw new IllegalArgumentException("Функция не может быть null");
+        }
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой");
+        }
+
+        double[] values = new double[pointsCount];
+        double step = (rightX - leftX) / (pointsCount - 1);
+        TabulatedFunctions.evaluateParallel(f, values, leftX, step, parallelism, threshold);
+        return new UniformTabulatedFunction(leftX, rightX, values);
     }
 
     /**
@@ -315,6 +480,595 @@ public class Functions {
         }
     }
 
+    /**
+     * Возвращает производную функции, построенную по правилам дифференцирования:
+     * для функций Sin, Cos, Tan, Exp, Log, констант, тождественной функции, многочленов,
+     * разложений Чебышёва и мета-функций (сумма, произведение, степень, композиция,
+     * сдвиг, масштабирование) строится новое дерево функций, упрощённое как в {@link #optimize}.
+     * Производные остальных функций (например, табулированных) вычисляются численно
+     * центральной разностью с шагом {@link #DEFAULT_DERIVATIVE_EPSILON}.
+     * Область определения производной может быть шире области определения f:
+     * например, производная логарифма 1/(x*ln(base)) определена и при x < 0.
+     * @param f функция для дифференцирования
+     * @return производная функции
+     * @throws IllegalArgumentException если f равна null
+     */
+    public static Function differentiate(Function f) {
+        return differentiate(f, DEFAULT_DERIVATIVE_EPSILON);
+    }
+
+    /**
+     * Возвращает производную функции, построенную по правилам дифференцирования,
+     * см. {@link #differentiate(Function)}.
+     * @param f функция для дифференцирования
+     * @param epsilon шаг численного дифференцирования для функций, производную которых нельзя построить
+     * @return производная функции
+     * @throws IllegalArgumentException если f равна null
+     * @throws IllegalArgumentException если epsilon <= 0
+     */
+    public static Function differentiate(Function f, double epsilon) {
+        if (f == null) {
+            throw new IllegalArgumentException("Функция не может быть null");
+        }
+        if (epsilon <= 0) {
+            throw new IllegalArgumentException("Шаг epsilon должен быть положительным");
+        }
+        return simplify(differentiateNode(f, epsilon));
+    }
+
+    private static Function differentiateNode(Function f, double epsilon) {
+        if (f instanceof Constant) {
+            return constant(0);
+        }
+        if (f instanceof Identity) {
+            return constant(1);
+        }
+        if (f instanceof Polynomial) {
+            return ((Polynomial) f).derivative();
+        }
+        if (f instanceof Chebyshev) {
+            return ((Chebyshev) f).derivative();
+        }
+        if (f instanceof functions.basic.Sin) {
+            return new functions.basic.Cos();
+        }
+        if (f instanceof functions.basic.Cos) {
+            return new Scale(new functions.basic.Sin(), 1, -1);
+        }
+        if (f instanceof functions.basic.Tan) {
+            // tan' = 1 + tan^2
+            return new Sum(constant(1), new Power(f, 2));
+        }
+        if (f instanceof functions.basic.Exp) {
+            return f;
+        }
+        if (f instanceof functions.basic.Log) {
+            // log_b(x)' = x^(-1) / ln(b)
+            double factor = 1 / Math.log(((functions.basic.Log) f).getBase());
+            return multiplied(new Power(identity(), -1), factor);
+        }
+        if (f instanceof Sum) {
+            Sum sum = (Sum) f;
+            return new Sum(differentiateNode(sum.getFirst(), epsilon), differentiateNode(sum.getSecond(), epsilon));
+        }
+        if (f instanceof NarySum) {
+            Function[] terms = ((NarySum) f).getTerms();
+            for (int i = 0; i < terms.length; i++) {
+                terms[i] = differentiateNode(terms[i], epsilon);
+            }
+            return new NarySum(terms);
+        }
+        if (f instanceof Mult) {
+            Mult mult = (Mult) f;
+            return differentiateProduct(new Function[]{mult.getFirst(), mult.getSecond()}, epsilon);
+        }
+        if (f instanceof NaryMult) {
+            return differentiateProduct(((NaryMult) f).getFactors(), epsilon);
+        }
+        if (f instanceof Power) {
+            // (g^p)' = p * g^(p-1) * g'
+            Power power = (Power) f;
+            Function base = power.getBaseFunction();
+            Function baseDerivative = differentiateNode(base, epsilon);
+            if (power.getPower() == 1) {
+                return baseDerivative;
+            }
+            if (power.getPower() == 0 || isZero(baseDerivative)) {
+                return new Mult(constant(0), f);
+            }
+            return new Mult(multiplied(new Power(base, power.getPower() - 1), power.getPower()), baseDerivative);
+        }
+        if (f instanceof Composition) {
+            // outer(inner(x))' = outer'(inner(x)) * inner'(x)
+            Composition composition = (Composition) f;
+            Function inner = composition.getInner();
+            Function innerDerivative = differentiateNode(inner, epsilon);
+            Function outerDerivative = new Composition(differentiateNode(composition.getOuter(), epsilon), inner);
+            return isZero(innerDerivative) ? new Mult(constant(0), f) : new Mult(outerDerivative, innerDerivative);
+        }
+        if (f instanceof Shift) {
+            // (yShift + g(x + xShift))' = g'(x + xShift)
+            Shift shift = (Shift) f;
+            return affine(differentiateNode(shift.getFunction(), epsilon), 1, shift.getXShift(), 1, 0);
+        }
+        if (f instanceof Scale) {
+            // (yScale * g(xScale * x))' = yScale * xScale * g'(xScale * x)
+            Scale scale = (Scale) f;
+            return multiplied(affine(differentiateNode(scale.getFunction(), epsilon), scale.getXScale(), 0, 1, 0),
+                    scale.getYScale() * scale.getXScale());
+        }
+        if (f instanceof Affine) {
+            Affine affine = (Affine) f;
+            return multiplied(affine(differentiateNode(affine.getFunction(), epsilon),
+                    affine.getXScale(), affine.getXShift(), 1, 0), affine.getYScale() * affine.getXScale());
+        }
+        // Производная остальных функций вычисляется численно
+        return new Derivative(f, epsilon);
+    }
+
+    /**
+     * Производная произведения: сумма произведений, в каждом из которых
+     * один сомножитель заменён своей производной; нулевые слагаемые пропускаются
+     */
+    private static Function differentiateProduct(Function[] factors, double epsilon) {
+        List<Function> terms = new ArrayList<>();
+        for (int i = 0; i < factors.length; i++) {
+            Function derivative = differentiateNode(factors[i], epsilon);
+            if (isZero(derivative)) {
+                continue;
+            }
+            Function[] product = factors.clone();
+            product[i] = derivative;
+            terms.add(new NaryMult(product));
+        }
+
+        if (terms.isEmpty()) {
+            return new Mult(constant(0), new NaryMult(factors));
+        }
+        return terms.size() == 1 ? terms.get(0) : new NarySum(terms.toArray(new Function[0]));
+    }
+
+    /**
+     * Возвращает factor * g; при нулевом множителе результат остаётся NaN там, где g не определена
+     */
+    private static Function multiplied(Function g, double factor) {
+        if (factor == 1) {
+            return g;
+        }
+        return Math.abs(factor) < 1e-10 ? new Mult(constant(factor), g) : affine(g, 1, 0, factor, 0);
+    }
+
+    private static boolean isZero(Function f) {
+        return f instanceof Constant && ((Constant) f).value == 0;
+    }
+
+    /**
+     * Упрощает дерево функций, возвращая эквивалентное, но более дешёвое в вычислении:
+     * <ul>
+     *   <li>сворачивает константные подвыражения в одну константу;</li>
+     *   <li>сливает цепочки Shift/Scale/Affine в один узел (Shift, Scale или Affine);</li>
+     *   <li>разворачивает вложенные Sum и Mult в n-арные NarySum и NaryMult,
+     *       собирая константные слагаемые и сомножители в одно число;</li>
+     *   <li>убирает тождественные преобразования: x^1, +0, *1, композицию с x.</li>
+     * </ul>
+     * Значения и границы области определения совпадают с исходными с точностью до округления.
+     * Через функции, которые могут изменяться (например, табулированные), константы не сворачиваются.
+     * @param f исходная функция
+     * @return упрощённая функция (возможно, f)
+     * @throws IllegalArgumentException если f равна null
+     */
+    public static Function optimize(Function f) {
+        if (f == null) {
+            throw new IllegalArgumentException("Функция не может быть null");
+        }
+        return simplify(f);
+    }
+
+    /**
+     * Компилирует дерево функций в один класс, вычисляющий всё выражение
+     * одним линейным методом без виртуальных вызовов между узлами basic и meta.
+     * Остальные функции дерева вызываются из сгенерированного кода как есть,
+     * поэтому изменения табулированных функций по-прежнему учитываются.
+     * Результат совпадает с исходным деревом побитово; для более быстрого кода
+     * дерево можно предварительно упростить: compile(optimize(f)).
+     * @param f исходная функция
+     * @return скомпилированная функция (или f, если дерево слишком велико для одного метода)
+     * @throws IllegalArgumentException если f равна null
+     */
+    public static Function compile(Function f) {
+        if (f == null) {
+            throw new IllegalArgumentException("Функция не может быть null");
+        }
+        return FunctionCompiler.compile(f);
+    }
+
+    /**
+     * Оборачивает функцию кэшем вычисленных значений ограниченного размера.
+     * Кэш потокобезопасен и хранит аргументы без упаковки в объекты; при заполнении
+     * значения вытесняются по алгоритму из policy. Полезно для дорогих функций,
+     * которые многократно вычисляются в одних и тех же точках.
+     * @param f исходная функция
+     * @param policy ёмкость кэша, алгоритм вытеснения и шаг квантования аргумента
+     * @return функция с кэшем
+     * @throws IllegalArgumentException если f или policy равны null
+     */
+    public static MemoizedFunction memoize(Function f, MemoizationPolicy policy) {
+        if (f == null) {
+            throw new IllegalArgumentException("Функция не может быть null");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("Политика кэширования не может быть null");
+        }
+        return new MemoizedFunction(f, policy);
+    }
+
+    /**
+     * Вычисляет интеграл функции от a до b адаптивным правилом Гаусса–Кронрода
+     * с погрешностью {@link Quadrature#DEFAULT_TOLERANCE}.
+     * @param f интегрируемая функция
+     * @param a нижний предел интегрирования
+     * @param b верхний предел интегрирования
+     * @return значение интеграла
+     * @throws IllegalArgumentException в тех же случаях, что и {@link Quadrature#integrate(Function, double, double)}
+     */
+    public static double integrate(Function f, double a, double b) {
+        return Quadrature.gaussKronrod().integrate(f, a, b);
+    }
+
+    /**
+     * Вычисляет интеграл функции от a до b заданной квадратурой.
+     * @param f интегрируемая функция
+     * @param a нижний предел интегрирования
+     * @param b верхний предел интегрирования
+     * @param quadrature метод, точность и число потоков
+     * @return значение интеграла
+     * @throws IllegalArgumentException если quadrature равна null
+     * @throws IllegalArgumentException в тех же случаях, что и {@link Quadrature#integrate(Function, double, double)}
+     */
+    public static double integrate(Function f, double a, double b, Quadrature quadrature) {
+        if (quadrature == null) {
+            throw new IllegalArgumentException("Квадратура не может быть null");
+        }
+        return quadrature.integrate(f, a, b);
+    }
+
+    private static Function simplify(Function f) {
+        if (f instanceof Polynomial) {
+            Polynomial polynomial = (Polynomial) f;
+            return polynomial.getDegree() == 0 ? constant(polynomial.getCoefficients()[0]) : f;
+        }
+        if (f instanceof Shift) {
+            Shift shift = (Shift) f;
+            return affine(simplify(shift.getFunction()), 1, shift.getXShift(), 1, shift.getYShift());
+        }
+        if (f instanceof Scale) {
+            Scale scale = (Scale) f;
+            return affine(simplify(scale.getFunction()), scale.getXScale(), 0, scale.getYScale(), 0);
+        }
+        if (f instanceof Affine) {
+            Affine affine = (Affine) f;
+            return affine(simplify(affine.getFunction()), affine.getXScale(), affine.getXShift(),
+                    affine.getYScale(), affine.getYShift());
+        }
+        if (f instanceof Sum || f instanceof NarySum) {
+            return simplifySum(f);
+        }
+        if (f instanceof Mult || f instanceof NaryMult) {
+            return simplifyMult(f);
+        }
+        if (f instanceof Power) {
+            return simplifyPower((Power) f);
+        }
+        if (f instanceof Composition) {
+            return simplifyComposition((Composition) f);
+        }
+        if (f instanceof Derivative) {
+            Derivative derivative = (Derivative) f;
+            return new Derivative(simplify(derivative.f), derivative.epsilon);
+        }
+        // Константы, тождественная функция, базовые и пользовательские функции
+        return f;
+    }
+
+    /**
+     * Строит yScale * g(xScale * x + xShift) + yShift, сливая преобразование
+     * с аффинным преобразованием внутри g, если оно там есть.
+     */
+    private static Function affine(Function g, double xScale, double xShift, double yScale, double yShift) {
+        while (true) {
+            double innerXScale;
+            double innerXShift;
+            double innerYScale;
+            double innerYShift;
+            Function inner;
+            if (g instanceof Shift) {
+                Shift shift = (Shift) g;
+                inner = shift.getFunction();
+                innerXScale = 1;
+                innerXShift = shift.getXShift();
+                innerYScale = 1;
+                innerYShift = shift.getYShift();
+            } else if (g instanceof Scale) {
+                Scale scale = (Scale) g;
+                inner = scale.getFunction();
+                innerXScale = scale.getXScale();
+                innerXShift = 0;
+                innerYScale = scale.getYScale();
+                innerYShift = 0;
+            } else if (g instanceof Affine) {
+                Affine affine = (Affine) g;
+                inner = affine.getFunction();
+                innerXScale = affine.getXScale();
+                innerXShift = affine.getXShift();
+                innerYScale = affine.getYScale();
+                innerYShift = affine.getYShift();
+            } else {
+                break;
+            }
+
+            double newXScale = innerXScale * xScale;
+            double newYScale = yScale * innerYScale;
+            if (Math.abs(newXScale) < 1e-10 || Math.abs(newYScale) < 1e-10) {
+                // Произведение коэффициентов нельзя представить одним узлом
+                break;
+            }
+            xShift = innerXScale * xShift + innerXShift;
+            yShift = yScale * innerYShift + yShift;
+            xScale = newXScale;
+            yScale = newYScale;
+            g = inner;
+        }
+
+        if (g instanceof Constant) {
+            return constant(yScale * ((Constant) g).value + yShift);
+        }
+        if (g instanceof Identity) {
+            return new Polynomial(new double[]{yScale * xShift + yShift, yScale * xScale});
+        }
+        if (xScale == 1 && yScale == 1) {
+            return xShift == 0 && yShift == 0 ? g : new Shift(g, xShift, yShift);
+        }
+        if (xShift == 0 && yShift == 0) {
+            return new Scale(g, xScale, yScale);
+        }
+        return new Affine(g, xScale, xShift, yScale, yShift);
+    }
+
+    private static Function simplifySum(Function f) {
+        List<Function> terms = new ArrayList<>();
+        double constantSum = 0;
+        boolean hasConstant = false;
+
+        Deque<Function> pending = new ArrayDeque<>();
+        pending.push(f);
+        while (!pending.isEmpty()) {
+            Function term = pending.pop();
+            // Вложенные узлы разворачиваются без упрощения, остальные упрощаются
+            if (!(term instanceof Sum || term instanceof NarySum)) {
+                term = simplify(term);
+            }
+            if (term instanceof Sum) {
+                pending.push(((Sum) term).getSecond());
+                pending.push(((Sum) term).getFirst());
+            } else if (term instanceof NarySum) {
+                Function[] children = ((NarySum) term).getTerms();
+                for (int i = children.length - 1; i >= 0; i--) {
+                    pending.push(children[i]);
+                }
+            } else if (term instanceof Constant) {
+                constantSum += ((Constant) term).value;
+                hasConstant = true;
+            } else if (term instanceof Shift && ((Shift) term).getXShift() == 0) {
+                // g(x) + c: константа выносится к остальным константам
+                constantSum += ((Shift) term).getYShift();
+                hasConstant = true;
+                terms.add(((Shift) term).getFunction());
+            } else {
+                terms.add(term);
+            }
+        }
+
+        if (terms.isEmpty()) {
+            return constant(constantSum);
+        }
+        if (terms.size() == 1) {
+            return hasConstant ? affine(terms.get(0), 1, 0, 1, constantSum) : terms.get(0);
+        }
+        if (hasConstant && constantSum != 0) {
+            terms.add(constant(constantSum));
+        }
+        return terms.size() == 2
+                ? new Sum(terms.get(0), terms.get(1))
+                : new NarySum(terms.toArray(new Function[0]));
+    }
+
+    private static Function simplifyMult(Function f) {
+        List<Function> factors = new ArrayList<>();
+        double constantProduct = 1;
+        boolean hasConstant = false;
+
+        Deque<Function> pending = new ArrayDeque<>();
+        pending.push(f);
+        while (!pending.isEmpty()) {
+            Function factor = pending.pop();
+            // Вложенные узлы разворачиваются без упрощения, остальные упрощаются
+            if (!(factor instanceof Mult || factor instanceof NaryMult)) {
+                factor = simplify(factor);
+            }
+            if (factor instanceof Mult) {
+                pending.push(((Mult) factor).getSecond());
+                pending.push(((Mult) factor).getFirst());
+            } else if (factor instanceof NaryMult) {
+                Function[] children = ((NaryMult) factor).getFactors();
+                for (int i = children.length - 1; i >= 0; i--) {
+                    pending.push(children[i]);
+                }
+            } else if (factor instanceof Constant) {
+                constantProduct *= ((Constant) factor).value;
+                hasConstant = true;
+            } else if (factor instanceof Scale && ((Scale) factor).getXScale() == 1) {
+                // c * g(x): множитель выносится к остальным константам
+                constantProduct *= ((Scale) factor).getYScale();
+                hasConstant = true;
+                factors.add(((Scale) factor).getFunction());
+            } else {
+                factors.add(factor);
+            }
+        }
+
+        if (factors.isEmpty()) {
+            return constant(constantProduct);
+        }
+        if (factors.size() == 1) {
+            Function factor = factors.get(0);
+            if (!hasConstant || constantProduct == 1) {
+                return factor;
+            }
+            return Math.abs(constantProduct) < 1e-10
+                    ? new Mult(constant(constantProduct), factor)
+                    : affine(factor, 1, 0, constantProduct, 0);
+        }
+        if (hasConstant && constantProduct != 1) {
+            factors.add(constant(constantProduct));
+        }
+        return factors.size() == 2
+                ? new Mult(factors.get(0), factors.get(1))
+                : new NaryMult(factors.toArray(new Function[0]));
+    }
+
+    private static Function simplifyPower(Power f) {
+        Function base = simplify(f.getBaseFunction());
+        double power = f.getPower();
+
+        if (base instanceof Constant) {
+            double value = ((Constant) base).value;
+            return constant(Double.isNaN(value) ? Double.NaN : Math.pow(value, power));
+        }
+        if (power == 1) {
+            return base;
+        }
+        // (g^a)^b = g^(a*b) верно для любого g только при целых a и b
+        if (base instanceof Power && power == Math.rint(power)
+                && ((Power) base).getPower() == Math.rint(((Power) base).getPower())) {
+            Power inner = (Power) base;
+            return new Power(inner.getBaseFunction(), inner.getPower() * power);
+        }
+        return new Power(base, power);
+    }
+
+    private static Function simplifyComposition(Composition f) {
+        Function outer = simplify(f.getOuter());
+        Function inner = simplify(f.getInner());
+
+        if (outer instanceof Identity) {
+            return inner;
+        }
+        if (inner instanceof Constant && isPure(outer)) {
+            double value = ((Constant) inner).value;
+            if (Double.isNaN(value) || value < outer.getLeftDomainBorder() || value > outer.getRightDomainBorder()) {
+                return constant(Double.NaN);
+            }
+            return constant(outer.getFunctionValue(value));
+        }
+        if (inner instanceof Identity && outer.getLeftDomainBorder() == Double.NEGATIVE_INFINITY
+                && outer.getRightDomainBorder() == Double.POSITIVE_INFINITY) {
+            return outer;
+        }
+        return new Composition(outer, inner);
+    }
+
+    /**
+     * Проверяет, что значение функции зависит только от аргумента и не может измениться,
+     * то есть его можно вычислить заранее.
+     */
+    private static boolean isPure(Function f) {
+        if (f instanceof Constant || f instanceof Identity || f instanceof Polynomial || f instanceof Chebyshev
+                || f instanceof functions.basic.Exp || f instanceof functions.basic.Log
+                || f instanceof functions.basic.TrigonometricFunction) {
+            return true;
+        }
+        if (f instanceof Shift) {
+            return isPure(((Shift) f).getFunction());
+        }
+        if (f instanceof Scale) {
+            return isPure(((Scale) f).getFunction());
+        }
+        if (f instanceof Affine) {
+            return isPure(((Affine) f).getFunction());
+        }
+        if (f instanceof Power) {
+            return isPure(((Power) f).getBaseFunction());
+        }
+        if (f instanceof Sum) {
+            return isPure(((Sum) f).getFirst()) && isPure(((Sum) f).getSecond());
+        }
+        if (f instanceof Mult) {
+            return isPure(((Mult) f).getFirst()) && isPure(((Mult) f).getSecond());
+        }
+        if (f instanceof Composition) {
+            return isPure(((Composition) f).getOuter()) && isPure(((Composition) f).getInner());
+        }
+        if (f instanceof NarySum) {
+            return allPure(((NarySum) f).getTerms());
+        }
+        if (f instanceof NaryMult) {
+            return allPure(((NaryMult) f).getFactors());
+        }
+        return false;
+    }
+
+    private static boolean allPure(Function[] functions) {
+        for (Function function : functions) {
+            if (!isPure(function)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Вычисляет функцию в k-й точке Чебышёва-Лобатто из n промежутков: x = b при k = 0, x = a при k = n
+     */
+    private static double chebyshevSample(Function f, double a, double b, int k, int n) {
+        double x;
+        if (k == 0) {
+            x = b;
+        } else if (k == n) {
+            x = a;
+        } else {
+            x = Math.min(b, Math.max(a, (a + b) / 2 + (b - a) / 2 * Math.cos(Math.PI * k / n)));
+        }
+
+        double y = f.getFunctionValue(x);
+        if (Double.isNaN(y) || Double.isInfinite(y)) {
+            throw new IllegalArgumentException("Функция не определена или бесконечна в точке x = " + x);
+        }
+        return y;
+    }
+
+    /**
+     * Дискретное косинусное преобразование первого рода значений в точках Чебышёва-Лобатто:
+     * c[j] = 2/n * (f0/2 + f1*cos(pi*j/n) + ... + fn*cos(pi*j)/2), c[0] и c[n] делятся пополам
+     */
+    private static double[] chebyshevCoefficients(double[] values, int n) {
+        double[] cosines = new double[2 * n];
+        for (int m = 0; m < 2 * n; m++) {
+            cosines[m] = Math.cos(Math.PI * m / n);
+        }
+
+        double[] coefficients = new double[n + 1];
+        for (int j = 0; j <= n; j++) {
+            double sum = (values[0] + (j % 2 == 0 ? values[n] : -values[n])) / 2;
+            for (int k = 1; k < n; k++) {
+                sum += values[k] * cosines[(int) ((long) j * k % (2 * n))];
+            }
+            coefficients[j] = 2 * sum / n;
+        }
+        coefficients[0] /= 2;
+        coefficients[n] /= 2;
+        return coefficients;
+    }
+
     /**
      * Пример использования класса Functions.
      */
@@ -0,0 +1,123 @@
+package functions;
+
+/**
+ * Курсор, перемещающийся по индексам точек табулированной функции.
+ * От запомненного отрезка выполняется экспоненциальный поиск (galloping)
+ * в нужную сторону, затем бинарный поиск внутри найденного диапазона,
+ * так что сдвиг на d отрезков стоит O(log d).
+ *
+ * Доступ к точкам идёт через методы pointsCount/pointX/pointY, которые
+ * реализации с прямым доступом к хранилищу могут переопределить.
+ */
+class IndexedTabulatedFunctionCursor implements TabulatedFunctionCursor {
+    private final TabulatedFunction function;
+    // Индекс левого конца последнего найденного отрезка
+    private int segment;
+
+    IndexedTabulatedFunctionCursor(TabulatedFunction function) {
+        this.function = function;
+    }
+
+    @Override
+    public TabulatedFunction getFunction() {
+        return function;
+    }
+
+    @Override
+    public void reset() {
+        segment = 0;
+    }
+
+    protected int pointsCount() {
+        return function.getPointsCount();
+    }
+
+    protected double pointX(int index) {
+        return function.getPointX(index);
+    }
+
+    protected double pointY(int index) {
+        return function.getPointY(index);
+    }
+
+    @Override
+    public double getFunctionValue(double x) {
+        int n = pointsCount();
+        if (x < pointX(0) || x > pointX(n - 1)) {
+            return Double.NaN;
+        }
+
+        int i = locate(x, n);
+        double x1 = pointX(i);
+        double x2 = pointX(i + 1);
+        double y1 = pointY(i);
+        double y2 = pointY(i + 1);
+
+        if (Math.abs(x - x1) < 1e-10) return y1;
+        if (Math.abs(x - x2) < 1e-10) return y2;
+
+        double k = (y2 - y1) / (x2 - x1);
+        return y1 + k * (x - x1);
+    }
+
+    /**
+     * Находит наибольший индекс i из [0, n - 2], для которого pointX(i) <= x,
+     * начиная поиск от запомненного отрезка.
+     */
+    private int locate(double x, int n) {
+        int last = n - 2;
+        int i = Math.min(segment, last);
+        int low;
+        int high;
+
+        if (pointX(i) <= x) {
+            if (i == last || x < pointX(i + 1)) {
+                return i;
+            }
+            // Экспоненциальный поиск вперёд: pointX(low) <= x
+            low = i + 1;
+            int step = 1;
+            while (true) {
+                high = low + step;
+                if (high >= last) {
+                    high = last;
+                    break;
+                }
+                if (pointX(high) > x) {
+                    break;
+                }
+                low = high;
+                step <<= 1;
+            }
+        } else {
+            // Экспоненциальный поиск назад: pointX(high + 1) > x
+            high = i - 1;
+            int step = 1;
+            while (true) {
+                low = high - step;
+                if (low <= 0) {
+                    low = 0;
+                    break;
+                }
+                if (pointX(low) <= x) {
+                    break;
+                }
+                high = low;
+                step <<= 1;
+            }
+        }
+
+        // Бинарный поиск последнего индекса с pointX <= x в [low, high]
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (pointX(mid) <= x) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        segment = low;
+        return low;
+    }
+}
@@ -0,0 +1,190 @@
+package functions;
+
+/**
+ * Индекс накопленных интегралов табулированной функции для быстрого вычисления
+ * интеграла ломаной по любому отрезку.
+ *
+ * Площади трапеций между соседними узлами хранятся в дереве Фенвика, поэтому
+ * сумма площадей на отрезке узлов и обновление одной площади стоят O(log n).
+ * Интеграл от a до b равен разности накопленных сумм для узлов, ближайших к a и b
+ * слева, с поправками на части крайних трапеций: два бинарных поиска и O(log n) сложений.
+ *
+ * Индекс строится при первом запросе. Функция-владелец сообщает об изменениях:
+ * при изменении координат точки ({@link #pointChanged(int)}) пересчитываются две
+ * соседние площади, при добавлении и удалении точек ({@link #invalidate()}) индекс
+ * перестраивается при следующем запросе. Чтобы ошибки округления от многих обновлений
+ * не накапливались, после n обновлений индекс также перестраивается целиком.
+ *
+ * Доступ к точкам идёт через методы pointsCount/pointX/pointY, которые
+ * реализации с прямым доступом к хранилищу могут переопределить.
+ *
+ * Запросы перестраивают и читают общие массивы, поэтому методы индекса синхронизированы:
+ * одновременные вызовы integrate из нескольких потоков безопасны, пока функция не изменяется.
+ */
+class IntegralIndex {
+    // Отрезки узлов короче этого суммируются напрямую, без вычитания накопленных сумм
+    private static final int DIRECT_SUM_LIMIT = 32;
+
+    private final TabulatedFunction function;
+    // areas[i] - площадь трапеции между узлами i и i + 1
+    private double[] areas;
+    // Дерево Фенвика по areas с индексацией с единицы
+    private double[] tree;
+    private int segments;
+    private int updates;
+    private boolean valid;
+
+    IntegralIndex(TabulatedFunction function) {
+        this.function = function;
+    }
+
+    protected int pointsCount() {
+        return function.getPointsCount();
+    }
+
+    protected double pointX(int index) {
+        return function.getPointX(index);
+    }
+
+    protected double pointY(int index) {
+        return function.getPointY(index);
+    }
+
+    /**
+     * Сообщает, что изменились координаты точки index, а число точек осталось прежним
+     */
+    synchronized void pointChanged(int index) {
+        if (!valid) {
+            return;
+        }
+        if (++updates > segments) {
+            valid = false;
+            return;
+        }
+        if (index > 0) {
+            updateArea(index - 1);
+        }
+        if (index < segments) {
+            updateArea(index);
+        }
+    }
+
+    /**
+     * Сообщает, что точки добавлены или удалены; индекс будет перестроен при следующем запросе
+     */
+    synchronized void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Вычисляет интеграл ломаной от a до b
+     * @param a нижний предел, не меньше левой границы области определения
+     * @param b верхний предел, не меньше a и не больше правой границы области определения
+     * @return значение интеграла
+     */
+    synchronized double integrate(double a, double b) {
+        if (!valid) {
+            rebuild();
+        }
+
+        int i = findSegment(a);
+        int j = findSegment(b);
+
+        double whole;
+        if (j - i <= DIRECT_SUM_LIMIT) {
+            whole = 0;
+            for (int k = i; k < j; k++) {
+                whole += areas[k];
+            }
+        } else {
+            whole = prefixSum(j) - prefixSum(i);
+        }
+        return whole - partialArea(i, a) + partialArea(j, b);
+    }
+
+    private void rebuild() {
+        int n = pointsCount();
+        segments = n - 1;
+        if (areas == null || areas.length < segments) {
+            areas = new double[segments];
+            tree = new double[segments + 1];
+        } else {
+            java.util.Arrays.fill(tree, 0);
+        }
+
+        double x1 = pointX(0);
+        double y1 = pointY(0);
+        for (int i = 0; i < segments; i++) {
+            double x2 = pointX(i + 1);
+            double y2 = pointY(i + 1);
+            areas[i] = (x2 - x1) * (y1 + y2) / 2;
+            x1 = x2;
+            y1 = y2;
+        }
+
+        // Построение дерева Фенвика за O(n): каждый узел добавляется к своему родителю
+        for (int i = 1; i <= segments; i++) {
+            tree[i] += areas[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= segments) {
+                tree[parent] += tree[i];
+            }
+        }
+        updates = 0;
+        valid = true;
+    }
+
+    private void updateArea(int segment) {
+        double x1 = pointX(segment);
+        double x2 = pointX(segment + 1);
+        double area = (x2 - x1) * (pointY(segment) + pointY(segment + 1)) / 2;
+        double delta = area - areas[segment];
+        areas[segment] = area;
+        for (int i = segment + 1; i <= segments; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Сумма площадей трапеций с номерами из [0, count)
+     */
+    private double prefixSum(int count) {
+        double sum = 0;
+        for (int i = count; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Площадь под отрезком segment от его левого конца до x
+     */
+    private double partialArea(int segment, double x) {
+        double x1 = pointX(segment);
+        if (x == x1) {
+            return 0;
+        }
+        double x2 = pointX(segment + 1);
+        double y1 = pointY(segment);
+        double y2 = pointY(segment + 1);
+        double y = y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+        return (x - x1) * (y1 + y) / 2;
+    }
+
+    /**
+     * Наибольший i из [0, n - 2], для которого pointX(i) <= x
+     */
+    private int findSegment(double x) {
+        int low = 0;
+        int high = segments;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (pointX(mid) <= x) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
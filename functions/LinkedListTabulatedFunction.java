@@ -1,9 +1,34 @@
 package functions;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
-
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Табулированная функция на основе индексируемого списка с пропусками (skip list).
+ *
+ * Нижний уровень - обычный двусвязный список узлов (ссылки next/prev).
+ * Верхние уровни содержат ссылки вперёд через несколько узлов вместе с длиной
+ * перехода (числом узлов нижнего уровня), что даёт доступ по индексу, поиск по x,
+ * вставку и удаление точки за O(log n) в среднем.
+ */
 public class LinkedListTabulatedFunction implements TabulatedFunction, Serializable {
     private static final long serialVersionUID = 3L;
+
+    // Максимальное число уровней списка
+    private static final int MAX_LEVEL = 32;
+
+    // Сериализованная форма совпадает с прежней: первый и последний узлы списка и их количество
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("head", Node.class),
+            new ObjectStreamField("tail", Node.class),
+            new ObjectStreamField("size", int.class)
+    };
+
     private static class Node implements Serializable {
         private static final long serialVersionUID = 4L;
 
@@ -11,14 +36,36 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         Node next;
         Node prev;
 
-        Node(FunctionPoint point) {
-            this.point = new FunctionPoint(point);
+        // Ссылки и длины переходов на уровнях 1..height-1 (элемент 0 не используется,
+        // нижний уровень представлен полями next/prev)
+        transient Node[] forward;
+        transient int[] width;
+
+        Node(FunctionPoint point, int height) {
+            this.point = point == null ? null : new FunctionPoint(point);
+            if (height > 1) {
+                this.forward = new Node[height];
+                this.width = new int[height];
+            }
+        }
+
+        int height() {
+            return forward == null ? 1 : forward.length;
         }
     }
 
-    private Node head;
-    private Node tail;
-    private int size;
+    // Заглавный узел без точки; header.next - первый узел списка
+    private transient Node header;
+    private transient Node tail;
+    private transient int size;
+    // Число используемых уровней
+    private transient int level;
+    // Счётчик структурных изменений (добавление и удаление узлов) для курсоров
+    private transient int modCount;
+    // Индекс накопленных интегралов, создаётся при первом интегрировании
+    private transient volatile IntegralIndex integralIndex;
+    // Индекс экстремумов на отрезках, создаётся при первом запросе
+    private transient volatile ExtremaIndex extremaIndex;
 
     // Конструкторы (остаются без изменений)
     public LinkedListTabulatedFunction(double leftX, double rightX, int pointsCount) {
@@ -29,20 +76,12 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
             throw new IllegalArgumentException("leftX must be less than rightX");
         }
 
-        this.size = pointsCount;
         double step = (rightX - leftX) / (pointsCount - 1);
-
-        head = new Node(new FunctionPoint(leftX, 0));
-        Node current = head;
-
-        for (int i = 1; i < pointsCount; i++) {
-            double x = leftX + i * step;
-            Node newNode = new Node(new FunctionPoint(x, 0));
-            current.next = newNode;
-            newNode.prev = current;
-            current = newNode;
+        FunctionPoint[] points = new FunctionPoint[pointsCount];
+        for (int i = 0; i < pointsCount; i++) {
+            points[i] = new FunctionPoint(leftX + i * step, 0);
         }
-        tail = current;
+        build(points);
     }
 
     public LinkedListTabulatedFunction(double leftX, double rightX, double[] values) {
@@ -53,20 +92,12 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
             throw new IllegalArgumentException("leftX must be less than rightX");
         }
 
-        this.size = values.length;
         double step = (rightX - leftX) / (values.length - 1);
-
-        head = new Node(new FunctionPoint(leftX, values[0]));
-        Node current = head;
-
-        for (int i = 1; i < values.length; i++) {
-            double x = leftX + i * step;
-            Node newNode = new Node(new FunctionPoint(x, values[i]));
-            current.next = newNode;
-            newNode.prev = current;
-            current = newNode;
+        FunctionPoint[] points = new FunctionPoint[values.length];
+        for (int i = 0; i < values.length; i++) {
+            points[i] = new FunctionPoint(leftX + i * step, values[i]);
         }
-        tail = current;
+        build(points);
     }
 
     public LinkedListTabulatedFunction(FunctionPoint[] pointsArray) {
@@ -91,49 +122,107 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
             }
         }
 
-        this.size = pointsArray.length;
+        build(pointsArray);
+    }
 
-        head = new Node(pointsArray[0]);
-        Node current = head;
+    // === ВСПОМОГАТЕЛЬНЫЕ МЕТОДЫ СПИСКА С ПРОПУСКАМИ ===
+
+    /**
+     * Строит список из упорядоченного по x массива точек за O(n).
+     */
+    private void build(FunctionPoint[] points) {
+        header = new Node(null, MAX_LEVEL);
+        level = 1;
+        size = 0;
+        tail = null;
+
+        Node[] last = new Node[MAX_LEVEL];
+        int[] lastPosition = new int[MAX_LEVEL];
+        for (int lvl = 0; lvl < MAX_LEVEL; lvl++) {
+            last[lvl] = header;
+            lastPosition[lvl] = -1;
+        }
 
-        for (int i = 1; i < pointsArray.length; i++) {
-            Node newNode = new Node(pointsArray[i]);
-            current.next = newNode;
-            newNode.prev = current;
-            current = newNode;
+        for (int i = 0; i < points.length; i++) {
+            Node node = new Node(points[i], randomHeight());
+            int height = node.height();
+
+            Node previous = last[0];
+            previous.next = node;
+            node.prev = previous == header ? null : previous;
+            for (int lvl = 1; lvl < height; lvl++) {
+                last[lvl].forward[lvl] = node;
+                last[lvl].width[lvl] = i - lastPosition[lvl];
+            }
+            for (int lvl = 0; lvl < height; lvl++) {
+                last[lvl] = node;
+                lastPosition[lvl] = i;
+            }
+            if (height > level) {
+                level = height;
+            }
         }
-        tail = current;
+
+        tail = last[0];
+        size = points.length;
+        modCount++;
+        notifyPointsChanged();
+        DomainCache.domainChanged();
+    }
+
+    private static int randomHeight() {
+        // Каждый следующий уровень получает узел с вероятностью 1/2
+        int height = Integer.numberOfTrailingZeros(ThreadLocalRandom.current().nextInt()) + 1;
+        return Math.min(height, MAX_LEVEL);
+    }
+
+    private static Node forward(Node node, int lvl) {
+        return lvl == 0 ? node.next : node.forward[lvl];
+    }
+
+    private static int width(Node node, int lvl) {
+        return lvl == 0 ? 1 : node.width[lvl];
     }
 
-    // Вспомогательные методы (остаются без изменений)
     private Node getNodeByIndex(int index) throws FunctionPointIndexOutOfBoundsException {
         if (index < 0 || index >= size) {
             throw new FunctionPointIndexOutOfBoundsException("Index out of bounds: " + index);
         }
 
-        Node current;
-        if (index < size / 2) {
-            current = head;
-            for (int i = 0; i < index; i++) {
-                current = current.next;
-            }
-        } else {
-            current = tail;
-            for (int i = size - 1; i > index; i--) {
-                current = current.prev;
+        Node current = header;
+        int position = -1;
+        for (int lvl = level - 1; lvl >= 0; lvl--) {
+            Node next;
+            while ((next = forward(current, lvl)) != null && position + width(current, lvl) <= index) {
+                position += width(current, lvl);
+                current = next;
             }
         }
         return current;
     }
 
-    private int findInsertPosition(double x) {
-        Node current = head;
-        int index = 0;
-        while (current != null && current.point.getX() < x) {
-            current = current.next;
-            index++;
+    /**
+     * Находит последний узел с абсциссой меньше x.
+     * @param x искомая абсцисса
+     * @param update если не null, сюда записываются последние пройденные узлы на каждом уровне
+     * @param rank если не null, сюда записываются индексы этих узлов (-1 для заглавного)
+     * @return найденный узел или header, если таких узлов нет
+     */
+    private Node findPredecessor(double x, Node[] update, int[] rank) {
+        Node current = header;
+        int position = -1;
+        for (int lvl = level - 1; lvl >= 0; lvl--) {
+            Node next;
+            while ((next = forward(current, lvl)) != null && next.point.getX() < x) {
+                position += width(current, lvl);
+                current = next;
+            }
+            if (update != null) {
+                update[lvl] = current;
+                rank[lvl] = position;
+            }
         }
-        return index;
+        return current;
     }
 
     // === РЕАЛИЗАЦИЯ МЕТОДОВ ИЗ TabulatedFunction ===
@@ -177,6 +266,8 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         }
 
         node.point = new FunctionPoint(point);
+        notifyPointChanged(index);
+        DomainCache.domainChanged();
     }
 
     @Override
@@ -216,6 +307,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
 
         Node node = getNodeByIndex(index);
         node.point = new FunctionPoint(node.point.getX(), y);
+        notifyPointChanged(index);
     }
 
     @Override
@@ -227,54 +319,136 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
             throw new IllegalStateException("Cannot delete point - function must have at least 2 points");
         }
 
-        Node nodeToDelete = getNodeByIndex(index);
+        // Для каждого уровня находим последний узел перед удаляемым
+        Node[] update = new Node[MAX_LEVEL];
+        Node current = header;
+        int position = -1;
+        for (int lvl = level - 1; lvl >= 0; lvl--) {
+            Node next;
+            while ((next = forward(current, lvl)) != null && position + width(current, lvl) < index) {
+                position += width(current, lvl);
+                current = next;
+            }
+            update[lvl] = current;
+        }
+
+        Node nodeToDelete = update[0].next;
 
-        if (nodeToDelete == head) {
-            head = nodeToDelete.next;
-            if (head != null) head.prev = null;
-        } else if (nodeToDelete == tail) {
-            tail = nodeToDelete.prev;
-            if (tail != null) tail.next = null;
+        Node previous = update[0] == header ? null : update[0];
+        update[0].next = nodeToDelete.next;
+        if (nodeToDelete.next != null) {
+            nodeToDelete.next.prev = previous;
         } else {
-            nodeToDelete.prev.next = nodeToDelete.next;
-            nodeToDelete.next.prev = nodeToDelete.prev;
+            tail = previous;
+        }
+
+        for (int lvl = 1; lvl < level; lvl++) {
+            Node node = update[lvl];
+            if (node.forward[lvl] == nodeToDelete) {
+                node.forward[lvl] = nodeToDelete.forward[lvl];
+                node.width[lvl] += nodeToDelete.width[lvl] - 1;
+            } else if (node.forward[lvl] != null) {
+                node.width[lvl]--;
+            }
+        }
+
+        while (level > 1 && header.forward[level - 1] == null) {
+            level--;
         }
 
         size--;
+        modCount++;
+        notifyPointsChanged();
+        DomainCache.domainChanged();
     }
 
     @Override
     public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
-        int insertIndex = findInsertPosition(point.getX());
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node predecessor = findPredecessor(point.getX(), update, rank);
 
-        if (insertIndex < size) {
-            Node existingNode = getNodeByIndex(insertIndex);
-            if (Math.abs(existingNode.point.getX() - point.getX()) < 1e-10) {
-                throw new InappropriateFunctionPointException("Point with x=" + point.getX() + " already exists");
-            }
+        Node existingNode = predecessor.next;
+        if (existingNode != null && Math.abs(existingNode.point.getX() - point.getX()) < 1e-10) {
+            throw new InappropriateFunctionPointException("Point with x=" + point.getX() + " already exists");
         }
 
-        Node newNode = new Node(point);
+        Node newNode = new Node(point, randomHeight());
+        int height = newNode.height();
+        int insertIndex = rank[0] + 1;
 
-        if (insertIndex == 0) {
-            newNode.next = head;
-            if (head != null) head.prev = newNode;
-            head = newNode;
-            if (tail == null) tail = newNode;
-        } else if (insertIndex == size) {
-            newNode.prev = tail;
-            if (tail != null) tail.next = newNode;
-            tail = newNode;
-            if (head == null) head = newNode;
+        if (height > level) {
+            for (int lvl = level; lvl < height; lvl++) {
+                update[lvl] = header;
+                rank[lvl] = -1;
+            }
+            level = height;
+        }
+
+        // Нижний уровень: вставка в двусвязный список
+        newNode.next = predecessor.next;
+        newNode.prev = predecessor == header ? null : predecessor;
+        predecessor.next = newNode;
+        if (newNode.next != null) {
+            newNode.next.prev = newNode;
         } else {
-            Node currentNode = getNodeByIndex(insertIndex);
-            newNode.next = currentNode;
-            newNode.prev = currentNode.prev;
-            currentNode.prev.next = newNode;
-            currentNode.prev = newNode;
+            tail = newNode;
+        }
+
+        // Верхние уровни: переходы через новый узел делятся на два
+        for (int lvl = 1; lvl < height; lvl++) {
+            Node node = update[lvl];
+            newNode.forward[lvl] = node.forward[lvl];
+            if (node.forward[lvl] != null) {
+                newNode.width[lvl] = rank[lvl] + node.width[lvl] + 1 - insertIndex;
+            }
+            node.forward[lvl] = newNode;
+            node.width[lvl] = insertIndex - rank[lvl];
+        }
+
+        // Переходы над новым узлом удлиняются на единицу
+        for (int lvl = height; lvl < level; lvl++) {
+            if (update[lvl].forward[lvl] != null) {
+                update[lvl].width[lvl]++;
+            }
         }
 
         size++;
+        modCount++;
+        notifyPointsChanged();
+        DomainCache.domainChanged();
+    }
+
+    /**
+     * Добавляет точки одним слиянием со списком и перестраивает уровни за O(n + m log m)
+     * вместо отдельного поиска для каждой точки.
+     */
+    @Override
+    public void addPoints(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        FunctionPoint[] batch = TabulatedFunctions.sortForInsertion(points);
+        if (batch.length == 0) {
+            return;
+        }
+
+        double[] xValues = new double[size];
+        double[] yValues = new double[size];
+        int index = 0;
+        for (Node node = header.next; node != null; node = node.next) {
+            xValues[index] = node.point.getX();
+            yValues[index] = node.point.getY();
+            index++;
+        }
+
+        int newSize = size + batch.length;
+        double[] mergedX = new double[newSize];
+        double[] mergedY = new double[newSize];
+        TabulatedFunctions.mergeForInsertion(xValues, yValues, size, batch, mergedX, mergedY);
+
+        FunctionPoint[] merged = new FunctionPoint[newSize];
+        for (int i = 0; i < newSize; i++) {
+            merged[i] = new FunctionPoint(mergedX[i], mergedY[i]);
+        }
+        build(merged);
     }
 
     @Override
@@ -282,7 +456,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         System.out.println("Табулированная функция (связный список):");
         System.out.println("-----------------------");
 
-        Node current = head;
+        Node current = header.next;
         int index = 0;
         while (current != null) {
             System.out.printf("Точка %d: (%.4f, %.4f)%n",
@@ -300,7 +474,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
     // === РЕАЛИЗАЦИЯ МЕТОДОВ ИЗ Function ===
     @Override
     public double getLeftDomainBorder() {
-        return head.point.getX();
+        return header.next.point.getX();
     }
 
     @Override
@@ -314,22 +488,201 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
             return Double.NaN;
         }
 
-        Node current = head;
-        while (current.next != null) {
-            double x1 = current.point.getX();
-            double x2 = current.next.point.getX();
+        // Последний узел левее x и первый узел не левее x находятся за O(log n)
+        Node left = findPredecessor(x, null, null);
+        Node right = left.next;
+
+        if (right != null && Math.abs(x - right.point.getX()) < 1e-10) return right.point.getY();
+        if (left == header) {
+            return Double.NaN;
+        }
+        if (Math.abs(x - left.point.getX()) < 1e-10) return left.point.getY();
+        if (right == null) {
+            return Double.NaN;
+        }
+
+        return linearInterpolation(left.point, right.point, x);
+    }
+
+    /**
+     * Вычисляет значение и наклон отрезка ломаной, содержащего x; в узле берётся
+     * наклон отрезка справа от него, в последнем узле - слева
+     */
+    @Override
+    public void getValueAndDerivative(double x, double[] result) {
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+            result[0] = Double.NaN;
+            result[1] = Double.NaN;
+            return;
+        }
+
+        Node left = findPredecessor(x, null, null);
+        Node right = left.next;
+        // Если x совпадает с узлом, отрезком считается следующий за ним
+        if (left == header || (right.next != null && right.point.getX() <= x)) {
+            left = right;
+            right = right.next;
+        }
+        FunctionPoint p1 = left.point;
+        FunctionPoint p2 = right.point;
+        result[1] = (p2.getY() - p1.getY()) / (p2.getX() - p1.getX());
+
+        if (Math.abs(x - p1.getX()) < 1e-10) {
+            result[0] = p1.getY();
+        } else if (Math.abs(x - p2.getX()) < 1e-10) {
+            result[0] = p2.getY();
+        } else {
+            result[0] = linearInterpolation(p1, p2, x);
+        }
+    }
 
-            if (Math.abs(x - x1) < 1e-10) return current.point.getY();
-            if (Math.abs(x - x2) < 1e-10) return current.next.point.getY();
+    /**
+     * Вычисляет значения для массива точек с помощью курсора: соседние точки массива
+     * обычно попадают на близкие отрезки и находятся короткой прогулкой по соседним узлам,
+     * далёкие - поиском по уровням за O(log n). Для упорядоченных точек это
+     * O(log n + k + число пройденных узлов), но не хуже поиска для каждой точки
+     */
+    @Override
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        TabulatedFunctionCursor cursor = cursor();
+        for (int i = 0; i < length; i++) {
+            out[outOffset + i] = cursor.getFunctionValue(xs[xsOffset + i]);
+        }
+    }
 
-            if (x > x1 && x < x2) {
-                return linearInterpolation(current.point, current.next.point, x);
+    /**
+     * Создаёт курсор, запоминающий узел последнего найденного отрезка.
+     * @return новый курсор
+     */
+    @Override
+    public TabulatedFunctionCursor cursor() {
+        return new ListCursor();
+    }
+
+    /**
+     * Возвращает индекс накопленных интегралов. Узел по номеру находится
+     * по верхним уровням за O(log n), поэтому индексу хватает методов getPointX/getPointY.
+     */
+    synchronized IntegralIndex integralIndex() {
+        if (integralIndex == null) {
+            integralIndex = new IntegralIndex(this);
+        }
+        return integralIndex;
+    }
+
+    /**
+     * Возвращает индекс экстремумов на отрезках (дерево отрезков)
+     */
+    synchronized ExtremaIndex extremaIndex() {
+        if (extremaIndex == null) {
+            extremaIndex = new ExtremaIndex.SegmentTree(this);
+        }
+        return extremaIndex;
+    }
+
+    /**
+     * Обновляет индексы интегралов и экстремумов после изменения координат точки index
+     */
+    private void notifyPointChanged(int index) {
+        if (integralIndex != null) {
+            integralIndex.pointChanged(index);
+        }
+        if (extremaIndex != null) {
+            extremaIndex.pointChanged(index);
+        }
+    }
+
+    /**
+     * Сбрасывает индексы интегралов и экстремумов после добавления или удаления точек
+     */
+    private void notifyPointsChanged() {
+        if (integralIndex != null) {
+            integralIndex.invalidate();
+        }
+        if (extremaIndex != null) {
+            extremaIndex.invalidate();
+        }
+    }
+
+    /**
+     * Курсор по узлам списка. Соседние отрезки проходятся по ссылкам next/prev,
+     * при большом сдвиге или после добавления/удаления узлов поиск выполняется
+     * заново по верхним уровням за O(log n).
+     */
+    private class ListCursor implements TabulatedFunctionCursor {
+        // Число шагов по соседним узлам, после которого выгоднее поиск по уровням
+        private static final int WALK_LIMIT = 16;
+
+        // Левый конец последнего найденного отрезка
+        private Node current;
+        private int expectedModCount;
+
+        @Override
+        public TabulatedFunction getFunction() {
+            return LinkedListTabulatedFunction.this;
+        }
+
+        @Override
+        public void reset() {
+            current = null;
+        }
+
+        @Override
+        public double getFunctionValue(double x) {
+            if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+                return Double.NaN;
             }
 
-            current = current.next;
+            Node left = locate(x);
+            Node right = left.next;
+
+            if (Math.abs(x - left.point.getX()) < 1e-10) return left.point.getY();
+            if (Math.abs(x - right.point.getX()) < 1e-10) return right.point.getY();
+
+            return linearInterpolation(left.point, right.point, x);
+        }
+
+        /**
+         * Находит узел, после которого начинается отрезок, содержащий x
+         * (последний узел с абсциссой не больше x, но не хвост списка).
+         */
+        private Node locate(double x) {
+            Node node = current;
+            if (node == null || expectedModCount != modCount) {
+                node = seek(x);
+            } else {
+                int steps = 0;
+                while (node.next.next != null && node.next.point.getX() <= x) {
+                    node = node.next;
+                    if (++steps > WALK_LIMIT) {
+                        node = seek(x);
+                        break;
+                    }
+                }
+                while (node.prev != null && node.point.getX() > x) {
+                    node = node.prev;
+                    if (++steps > WALK_LIMIT) {
+                        node = seek(x);
+                        break;
+                    }
+                }
+            }
+            current = node;
+            return node;
         }
 
-        return Double.NaN;
+        private Node seek(double x) {
+            expectedModCount = modCount;
+            Node node = findPredecessor(x, null, null);
+            if (node == header) {
+                node = header.next;
+            }
+            // Узел с абсциссой, равной x, тоже может быть левым концом отрезка
+            if (node.next.next != null && node.next.point.getX() <= x) {
+                node = node.next;
+            }
+            return node;
+        }
     }
 
     private double linearInterpolation(FunctionPoint p1, FunctionPoint p2, double x) {
@@ -341,4 +694,43 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         double k = (y2 - y1) / (x2 - x1);
         return y1 + k * (x - x1);
     }
-}
\ No newline at end of file
+
+    // === СЕРИАЛИЗАЦИЯ ===
+
+    /**
+     * Записывает объект в прежнем формате: первый и последний узлы нижнего уровня и количество точек.
+     * Верхние уровни не сериализуются и строятся заново при чтении.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("head", header.next);
+        fields.put("tail", tail);
+        fields.put("size", size);
+        out.writeFields();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        Node head = (Node) fields.get("head", null);
+        int count = fields.get("size", 0);
+
+        if (count < 2) {
+            throw new InvalidObjectException("Invalid data: points count must be at least 2, got " + count);
+        }
+
+        FunctionPoint[] points = new FunctionPoint[count];
+        Node current = head;
+        for (int i = 0; i < count; i++) {
+            if (current == null || current.point == null) {
+                throw new InvalidObjectException("Invalid data: list is shorter than " + count);
+            }
+            if (i > 0 && current.point.getX() <= points[i - 1].getX()) {
+                throw new InvalidObjectException("Invalid data: points are not strictly increasing by x");
+            }
+            points[i] = current.point;
+            current = current.next;
+        }
+
+        build(points);
+    }
+}
@@ -0,0 +1,418 @@
+package functions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Табулированная функция только для чтения, отображённая из двоичного файла в память.
+ *
+ * Формат файла (порядок байтов little-endian):
+ * <pre>
+ *   0  int  MAGIC ("TABF")
+ *   4  int  VERSION
+ *   8  long количество точек n
+ *  16  long смещение столбца x (кратно 8)
+ *  24  long смещение столбца y (кратно 8)
+ *  ...     n значений x (double), строго возрастающих
+ *  ...     n значений y (double)
+ * </pre>
+ * Файл записывается методом {@link TabulatedFunctions#writeBinaryTabulatedFunction}.
+ *
+ * Открытие читает только заголовок и отображает столбцы через FileChannel.map,
+ * поэтому занимает O(1) независимо от размера таблицы; интерполяция выполняется
+ * прямо по отображённой памяти. Порядок абсцисс при открытии не проверяется -
+ * за него отвечает записывающая сторона.
+ *
+ * Методы, изменяющие точки, выбрасывают UnsupportedOperationException.
+ * После close() обращения к функции выбрасывают IllegalStateException.
+ */
+public class MappedTabulatedFunction implements TabulatedFunction, AutoCloseable {
+    static final int MAGIC = 0x46424154;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+
+    // Один отображённый участок столбца содержит не более 2^CHUNK_SHIFT значений
+    // (1 ГБ), так как MappedByteBuffer ограничен 2 ГБ
+    private static final int CHUNK_SHIFT = 27;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    private final int size;
+    private DoubleBuffer[] xs;
+    private DoubleBuffer[] ys;
+    // Индекс накопленных интегралов; функция неизменяема, поэтому он строится один раз
+    private volatile IntegralIndex integralIndex;
+    // Индекс экстремумов на отрезках, создаётся при первом запросе
+    private volatile ExtremaIndex extremaIndex;
+
+    private MappedTabulatedFunction(int size, DoubleBuffer[] xs, DoubleBuffer[] ys) {
+        this.size = size;
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    /**
+     * Открывает двоичный файл табулированной функции и отображает его в память.
+     * Канал закрывается сразу после отображения, отображение остаётся действительным.
+     *
+     * @param path путь к файлу
+     * @return функция, читающая точки из отображённого файла
+     * @throws IOException если файл не удаётся прочитать или его заголовок некорректен
+     */
+    public static MappedTabulatedFunction open(Path path) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("Путь к файлу не может быть null");
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException("Некорректный файл: заголовок обрезан");
+                }
+            }
+            header.flip();
+
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Некорректный файл: неизвестная сигнатура");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Неподдерживаемая версия формата: " + version);
+            }
+            long pointsCount = header.getLong();
+            long xOffset = header.getLong();
+            long yOffset = header.getLong();
+
+            if (pointsCount < 2 || pointsCount > Integer.MAX_VALUE) {
+                throw new IOException("Некорректные данные: количество точек " + pointsCount);
+            }
+            long columnBytes = pointsCount * Double.BYTES;
+            if (xOffset < HEADER_SIZE || yOffset < HEADER_SIZE
+                    || xOffset % Double.BYTES != 0 || yOffset % Double.BYTES != 0
+                    || (xOffset < yOffset ? xOffset + columnBytes > yOffset : yOffset + columnBytes > xOffset)) {
+                throw new IOException("Некорректный файл: неверные смещения столбцов");
+            }
+            if (Math.max(xOffset, yOffset) + columnBytes > channel.size()) {
+                throw new IOException("Некорректный файл: данные обрезаны");
+            }
+
+            int n = (int) pointsCount;
+            return new MappedTabulatedFunction(n, map(channel, xOffset, n), map(channel, yOffset, n));
+        }
+    }
+
+    /**
+     * Копирует точки в новую функцию ArrayTabulatedFunction в куче.
+     * @return изменяемая копия функции
+     */
+    public ArrayTabulatedFunction toArrayTabulatedFunction() {
+        FunctionPoint[] points = new FunctionPoint[getPointsCount()];
+        for (int i = 0; i < size; i++) {
+            points[i] = new FunctionPoint(x(i), y(i));
+        }
+        return new ArrayTabulatedFunction(points);
+    }
+
+    /**
+     * Отпускает отображённые участки файла. Повторный вызов ничего не делает.
+     */
+    @Override
+    public void close() {
+        xs = null;
+        ys = null;
+        integralIndex = null;
+        extremaIndex = null;
+    }
+
+    // === РЕАЛИЗАЦИЯ МЕТОДОВ ИЗ TabulatedFunction ===
+    @Override
+    public int getPointsCount() {
+        ensureOpen();
+        return size;
+    }
+
+    @Override
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return new FunctionPoint(x(index), y(index));
+    }
+
+    @Override
+    public void setPoint(int index, FunctionPoint point) {
+        throw new UnsupportedOperationException("Mapped tabulated function is read-only");
+    }
+
+    @Override
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return x(index);
+    }
+
+    @Override
+    public void setPointX(int index, double x) {
+        throw new UnsupportedOperationException("Mapped tabulated function is read-only");
+    }
+
+    @Override
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return y(index);
+    }
+
+    @Override
+    public void setPointY(int index, double y) {
+        throw new UnsupportedOperationException("Mapped tabulated function is read-only");
+    }
+
+    @Override
+    public void deletePoint(int index) {
+        throw new UnsupportedOperationException("Mapped tabulated function is read-only");
+    }
+
+    @Override
+    public void addPoint(FunctionPoint point) {
+        throw new UnsupportedOperationException("Mapped tabulated function is read-only");
+    }
+
+    @Override
+    public void addPoints(FunctionPoint[] points) {
+        throw new UnsupportedOperationException("Mapped tabulated function is read-only");
+    }
+
+    @Override
+    public void printFunction() {
+        System.out.println("Табулированная функция (отображённый файл):");
+        System.out.println("-----------------------");
+
+        for (int i = 0; i < getPointsCount(); i++) {
+            try {
+                FunctionPoint point = getPoint(i);
+                System.out.printf("Точка %d: (%.4f, %.4f)%n",
+                        i, point.getX(), point.getY());
+            } catch (FunctionPointIndexOutOfBoundsException e) {
+                System.out.println("Ошибка при получении точки " + i);
+            }
+        }
+
+        System.out.println("-----------------------");
+        System.out.printf("Область определения: [%.4f, %.4f]%n",
+                getLeftDomainBorder(), getRightDomainBorder());
+        System.out.printf("Количество точек: %d%n", getPointsCount());
+    }
+
+    // === РЕАЛИЗАЦИЯ МЕТОДОВ ИЗ Function ===
+    @Override
+    public double getLeftDomainBorder() {
+        ensureOpen();
+        return x(0);
+    }
+
+    @Override
+    public double getRightDomainBorder() {
+        ensureOpen();
+        return x(size - 1);
+    }
+
+    @Override
+    public double getFunctionValue(double x) {
+        ensureOpen();
+        return valueAt(x);
+    }
+
+    /**
+     * Вычисляет значение и наклон отрезка ломаной, содержащего x; в узле берётся
+     * наклон отрезка справа от него, в последнем узле - слева
+     */
+    @Override
+    public void getValueAndDerivative(double x, double[] result) {
+        ensureOpen();
+        if (x < x(0) || x > x(size - 1)) {
+            result[0] = Double.NaN;
+            result[1] = Double.NaN;
+            return;
+        }
+
+        int i = findSegment(x);
+        double x1 = x(i);
+        double x2 = x(i + 1);
+        double y1 = y(i);
+        double y2 = y(i + 1);
+        double k = (y2 - y1) / (x2 - x1);
+        result[1] = k;
+
+        if (Math.abs(x - x1) < 1e-10) {
+            result[0] = y1;
+        } else if (Math.abs(x - x2) < 1e-10) {
+            result[0] = y2;
+        } else {
+            result[0] = y1 + k * (x - x1);
+        }
+    }
+
+    @Override
+    public void getFunctionValues(double[] arguments, int argumentsOffset, double[] out, int outOffset, int length) {
+        ensureOpen();
+        for (int i = 0; i < length; i++) {
+            out[outOffset + i] = valueAt(arguments[argumentsOffset + i]);
+        }
+    }
+
+    /**
+     * Создаёт курсор, читающий отображённые столбцы напрямую, без проверок индексов.
+     * @return новый курсор
+     */
+    @Override
+    public TabulatedFunctionCursor cursor() {
+        ensureOpen();
+        return new IndexedTabulatedFunctionCursor(this) {
+            @Override
+            protected int pointsCount() {
+                return size;
+            }
+
+            @Override
+            protected double pointX(int index) {
+                return x(index);
+            }
+
+            @Override
+            protected double pointY(int index) {
+                return y(index);
+            }
+        };
+    }
+
+    /**
+     * Возвращает индекс накопленных интегралов, читающий отображённые буферы напрямую
+     * @throws IllegalStateException если функция закрыта
+     */
+    synchronized IntegralIndex integralIndex() {
+        ensureOpen();
+        if (integralIndex == null) {
+            integralIndex = new IntegralIndex(this) {
+                @Override
+                protected int pointsCount() {
+                    return size;
+                }
+
+                @Override
+                protected double pointX(int index) {
+                    return x(index);
+                }
+
+                @Override
+                protected double pointY(int index) {
+                    return y(index);
+                }
+            };
+        }
+        return integralIndex;
+    }
+
+    /**
+     * Возвращает индекс экстремумов на отрезках: функция неизменяема,
+     * поэтому используется разреженная таблица с запросом за O(1)
+     * @throws IllegalStateException если функция закрыта
+     */
+    synchronized ExtremaIndex extremaIndex() {
+        ensureOpen();
+        if (extremaIndex == null) {
+            extremaIndex = new ExtremaIndex.SparseTable(this) {
+                @Override
+                protected int pointsCount() {
+                    return size;
+                }
+
+                @Override
+                protected double pointX(int index) {
+                    return x(index);
+                }
+
+                @Override
+                protected double pointY(int index) {
+                    return y(index);
+                }
+            };
+        }
+        return extremaIndex;
+    }
+
+    // Вспомогательные методы
+
+    private double valueAt(double x) {
+        if (x < x(0) || x > x(size - 1)) {
+            return Double.NaN;
+        }
+
+        int low = findSegment(x);
+        double x1 = x(low);
+        double x2 = x(low + 1);
+        double y1 = y(low);
+        double y2 = y(low + 1);
+
+        if (Math.abs(x - x1) < 1e-10) return y1;
+        if (Math.abs(x - x2) < 1e-10) return y2;
+
+        double k = (y2 - y1) / (x2 - x1);
+        return y1 + k * (x - x1);
+    }
+
+    /**
+     * Наибольший i из [0, size - 2], для которого x(i) <= x
+     */
+    private int findSegment(double x) {
+        int low = 0;
+        int high = size - 1;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (x(mid) <= x) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private double x(int index) {
+        return xs[index >>> CHUNK_SHIFT].get(index & CHUNK_MASK);
+    }
+
+    private double y(int index) {
+        return ys[index >>> CHUNK_SHIFT].get(index & CHUNK_MASK);
+    }
+
+    private void ensureOpen() {
+        if (xs == null) {
+            throw new IllegalStateException("Mapped tabulated function is closed");
+        }
+    }
+
+    private void checkIndex(int index) {
+        ensureOpen();
+        if (index < 0 || index >= size) {
+            throw new FunctionPointIndexOutOfBoundsException("Index out of bounds: " + index);
+        }
+    }
+
+    /**
+     * Отображает столбец из count значений double, начиная с offset, участками по 2^CHUNK_SHIFT значений.
+     */
+    private static DoubleBuffer[] map(FileChannel channel, long offset, int count) throws IOException {
+        int chunks = ((count - 1) >>> CHUNK_SHIFT) + 1;
+        DoubleBuffer[] column = new DoubleBuffer[chunks];
+        for (int c = 0; c < chunks; c++) {
+            long first = (long) c << CHUNK_SHIFT;
+            long length = Math.min(count - first, 1L << CHUNK_SHIFT);
+            column[c] = channel.map(FileChannel.MapMode.READ_ONLY, offset + first * Double.BYTES, length * Double.BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .asDoubleBuffer();
+        }
+        return column;
+    }
+}
@@ -0,0 +1,97 @@
+package functions;
+
+/**
+ * Параметры кэша значений функции для {@link Functions#memoize(Function, MemoizationPolicy)}:
+ * максимальное число хранимых значений, алгоритм вытеснения и шаг квантования аргумента.
+ * Объекты неизменяемы.
+ */
+public final class MemoizationPolicy {
+
+    /**
+     * Алгоритм вытеснения значений при заполнении кэша
+     */
+    public enum Eviction {
+        /**
+         * Вытесняется значение, к которому дольше всего не обращались
+         */
+        LRU,
+        /**
+         * W-TinyLFU: новые значения попадают в небольшое окно LRU, а в основную область
+         * допускаются, только если по оценке частоты обращений они популярнее вытесняемых.
+         * Лучше LRU переносит однократные проходы по большому числу разных аргументов.
+         */
+        TINY_LFU
+    }
+
+    private final int capacity;
+    private final Eviction eviction;
+    private final double quantization;
+
+    private MemoizationPolicy(int capacity, Eviction eviction, double quantization) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Ёмкость кэша должна быть положительной");
+        }
+        if (eviction == null) {
+            throw new IllegalArgumentException("Алгоритм вытеснения не может быть null");
+        }
+        if (!(quantization >= 0) || Double.isInfinite(quantization)) {
+            throw new IllegalArgumentException("Шаг квантования должен быть неотрицательным конечным числом");
+        }
+        this.capacity = capacity;
+        this.eviction = eviction;
+        this.quantization = quantization;
+    }
+
+    /**
+     * Кэш с вытеснением LRU
+     * @param capacity максимальное число хранимых значений
+     * @return политика кэширования
+     * @throws IllegalArgumentException если capacity < 1
+     */
+    public static MemoizationPolicy lru(int capacity) {
+        return new MemoizationPolicy(capacity, Eviction.LRU, 0);
+    }
+
+    /**
+     * Кэш с вытеснением W-TinyLFU
+     * @param capacity максимальное число хранимых значений
+     * @return политика кэширования
+     * @throws IllegalArgumentException если capacity < 1
+     */
+    public static MemoizationPolicy tinyLfu(int capacity) {
+        return new MemoizationPolicy(capacity, Eviction.TINY_LFU, 0);
+    }
+
+    /**
+     * Возвращает политику с квантованием аргумента: x заменяется ближайшим кратным step,
+     * и значение вычисляется и кэшируется для него, так что близкие аргументы
+     * получают одно и то же значение.
+     * @param step шаг квантования; 0 отключает квантование
+     * @return новая политика кэширования
+     * @throws IllegalArgumentException если step отрицателен, бесконечен или равен NaN
+     */
+    public MemoizationPolicy withQuantization(double step) {
+        return new MemoizationPolicy(capacity, eviction, step);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public Eviction getEviction() {
+        return eviction;
+    }
+
+    /**
+     * Возвращает шаг квантования аргумента
+     * @return шаг квантования или 0, если квантование отключено
+     */
+    public double getQuantization() {
+        return quantization;
+    }
+
+    @Override
+    public String toString() {
+        return "MemoizationPolicy(" + eviction + ", capacity=" + capacity + ", quantization=" + quantization + ")";
+    }
+}
@@ -0,0 +1,453 @@
+package functions;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Функция, запоминающая вычисленные значения другой функции в ограниченном кэше.
+ * Создаётся методом {@link Functions#memoize(Function, MemoizationPolicy)}.
+ *
+ * Кэш разбит на сегменты со своими блокировками, сегмент выбирается по хешу аргумента,
+ * поэтому потоки, обращающиеся к разным аргументам, почти не мешают друг другу.
+ * Внутри сегмента ключи хранятся как биты double в массиве long с открытой адресацией,
+ * без упаковки в объекты. Значение вычисляется вне блокировки: если несколько потоков
+ * одновременно не нашли один и тот же аргумент, функция может быть вычислена
+ * несколько раз, а в кэше останется первое сохранённое значение.
+ *
+ * Кэш не знает об изменениях исходной функции: после изменения табулированной функции
+ * следует вызвать {@link #clear()}.
+ */
+public class MemoizedFunction implements Function {
+    private final Function function;
+    private final MemoizationPolicy policy;
+    private final double quantization;
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    MemoizedFunction(Function function, MemoizationPolicy policy) {
+        this.function = function;
+        this.policy = policy;
+        this.quantization = policy.getQuantization();
+
+        // Число сегментов - степень двойки, не больше 4 на процессор и не меньше 64 значений на сегмент
+        int capacity = policy.getCapacity();
+        int maxSegments = 4 * Runtime.getRuntime().availableProcessors();
+        int count = 1;
+        while (count < maxSegments && capacity / (count * 2) >= 64) {
+            count *= 2;
+        }
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            int segmentCapacity = capacity / count + (i < capacity % count ? 1 : 0);
+            segments[i] = new Segment(segmentCapacity, policy.getEviction());
+        }
+        segmentShift = 64 - Integer.numberOfTrailingZeros(count);
+    }
+
+    @Override
+    public double getLeftDomainBorder() {
+        return function.getLeftDomainBorder();
+    }
+
+    @Override
+    public double getRightDomainBorder() {
+        return function.getRightDomainBorder();
+    }
+
+    /**
+     * Возвращает значение из кэша или вычисляет и запоминает его.
+     * При включённом квантовании значение вычисляется в ближайшей к x точке сетки с заданным шагом.
+     * @param x точка, в которой вычисляется значение
+     * @return значение функции
+     */
+    @Override
+    public double getFunctionValue(double x) {
+        if (quantization > 0) {
+            x = Math.rint(x / quantization) * quantization;
+        }
+
+        long key = Double.doubleToLongBits(x);
+        long hash = mix(key);
+        Segment segment = segments[segmentShift == 64 ? 0 : (int) (hash >>> segmentShift)];
+
+        long cached = segment.get(key, hash);
+        if (cached != Segment.ABSENT) {
+            hits.increment();
+            return Double.longBitsToDouble(cached);
+        }
+
+        misses.increment();
+        double value = function.getFunctionValue(x);
+        segment.put(key, hash, value);
+        return value;
+    }
+
+    /**
+     * Значение и производная не кэшируются и вычисляются исходной функцией
+     * (при включённом квантовании - в той же точке сетки, что и getFunctionValue)
+     */
+    @Override
+    public void getValueAndDerivative(double x, double[] result) {
+        if (quantization > 0) {
+            x = Math.rint(x / quantization) * quantization;
+        }
+        function.getValueAndDerivative(x, result);
+    }
+
+    /**
+     * Возвращает исходную функцию
+     * @return исходная функция
+     */
+    public Function getFunction() {
+        return function;
+    }
+
+    /**
+     * Возвращает политику кэширования
+     * @return политика кэширования
+     */
+    public MemoizationPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Возвращает число вызовов, значение для которых нашлось в кэше
+     * @return число попаданий
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Возвращает число вызовов, для которых значение пришлось вычислять
+     * @return число промахов
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Возвращает текущее число значений в кэше
+     * @return число значений
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Удаляет все значения из кэша; счётчики попаданий и промахов не сбрасываются
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Memoized(" + function + ", " + policy + ")";
+    }
+
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    /**
+     * Сегмент кэша: хеш-таблица с открытой адресацией по ключам long и очереди
+     * вытеснения в виде двусвязных списков на массивах индексов. Все методы
+     * выполняются под блокировкой сегмента.
+     */
+    private static final class Segment {
+        // Значение не может совпасть с битами double, возвращаемыми get: это биты NaN,
+        // отличные от канонического NaN, который возвращает Double.doubleToLongBits
+        static final long ABSENT = 0x7ff0000000000badL;
+
+        private static final byte WINDOW = 0;
+        private static final byte PROBATION = 1;
+        private static final byte PROTECTED = 2;
+
+        private final boolean tinyLfu;
+        private final int capacity;
+        private final int windowMax;
+        private final int protectedMax;
+
+        // Данные записей по номеру ячейки
+        private final long[] keys;
+        private final double[] values;
+        private final int[] prev;
+        private final int[] next;
+        private final byte[] queueOf;
+
+        // Очереди: голова - самая давняя запись, хвост - самая свежая
+        private final int[] head = new int[3];
+        private final int[] tail = new int[3];
+        private final int[] queueSize = new int[3];
+
+        // Хеш-индекс: номер ячейки + 1, 0 - пусто
+        private final int[] table;
+        private final int tableMask;
+
+        private final int[] free;
+        private int freeCount;
+        private int size;
+
+        private final FrequencySketch sketch;
+
+        Segment(int capacity, MemoizationPolicy.Eviction eviction) {
+            this.capacity = capacity;
+            this.tinyLfu = eviction == MemoizationPolicy.Eviction.TINY_LFU && capacity >= 2;
+            this.windowMax = tinyLfu ? Math.max(1, capacity / 100) : capacity;
+            this.protectedMax = (capacity - windowMax) * 4 / 5;
+
+            keys = new long[capacity];
+            values = new double[capacity];
+            prev = new int[capacity];
+            next = new int[capacity];
+            queueOf = new byte[capacity];
+            int tableSize = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) * 2;
+            table = new int[tableSize];
+            tableMask = tableSize - 1;
+            free = new int[capacity];
+            sketch = tinyLfu ? new FrequencySketch(capacity) : null;
+            clear();
+        }
+
+        synchronized long get(long key, long hash) {
+            if (sketch != null) {
+                sketch.increment(hash);
+            }
+            int slot = find(key, hash);
+            if (slot < 0) {
+                return ABSENT;
+            }
+            onAccess(slot);
+            return Double.doubleToLongBits(values[slot]);
+        }
+
+        synchronized void put(long key, long hash, double value) {
+            if (find(key, hash) >= 0) {
+                return;
+            }
+
+            if (tinyLfu) {
+                if (queueSize[WINDOW] >= windowMax) {
+                    evictFromWindow();
+                }
+            } else if (size == capacity) {
+                remove(head[WINDOW]);
+            }
+
+            int slot = free[--freeCount];
+            keys[slot] = key;
+            values[slot] = value;
+            insertIndex(slot, hash);
+            link(slot, WINDOW);
+            size++;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized void clear() {
+            Arrays.fill(table, 0);
+            for (int q = 0; q < 3; q++) {
+                head[q] = -1;
+                tail[q] = -1;
+                queueSize[q] = 0;
+            }
+            for (int i = 0; i < capacity; i++) {
+                free[i] = capacity - 1 - i;
+            }
+            freeCount = capacity;
+            size = 0;
+        }
+
+        /**
+         * Перемещает запись в хвост её очереди; в W-TinyLFU повторное обращение
+         * к записи из испытательной области переводит её в защищённую
+         */
+        private void onAccess(int slot) {
+            byte queue = queueOf[slot];
+            unlink(slot);
+            if (queue == PROBATION) {
+                link(slot, PROTECTED);
+                if (queueSize[PROTECTED] > protectedMax) {
+                    int demoted = head[PROTECTED];
+                    unlink(demoted);
+                    link(demoted, PROBATION);
+                }
+            } else {
+                link(slot, queue);
+            }
+        }
+
+        /**
+         * Освобождает место в окне W-TinyLFU: самая давняя запись окна переходит
+         * в основную область, если там есть место или её частота выше, чем у
+         * кандидата на вытеснение из основной области; иначе она удаляется
+         */
+        private void evictFromWindow() {
+            int candidate = head[WINDOW];
+            unlink(candidate);
+            if (queueSize[PROBATION] + queueSize[PROTECTED] < capacity - windowMax) {
+                link(candidate, PROBATION);
+                return;
+            }
+
+            int victim = queueSize[PROBATION] > 0 ? head[PROBATION] : head[PROTECTED];
+            if (sketch.frequency(mix(keys[candidate])) > sketch.frequency(mix(keys[victim]))) {
+                remove(victim);
+                link(candidate, PROBATION);
+            } else {
+                discard(candidate);
+            }
+        }
+
+        private void remove(int slot) {
+            unlink(slot);
+            discard(slot);
+        }
+
+        /**
+         * Освобождает ячейку записи, уже исключённой из очередей
+         */
+        private void discard(int slot) {
+            removeIndex(keys[slot]);
+            free[freeCount++] = slot;
+            size--;
+        }
+
+        private void link(int slot, byte queue) {
+            queueOf[slot] = queue;
+            prev[slot] = tail[queue];
+            next[slot] = -1;
+            if (tail[queue] >= 0) {
+                next[tail[queue]] = slot;
+            } else {
+                head[queue] = slot;
+            }
+            tail[queue] = slot;
+            queueSize[queue]++;
+        }
+
+        private void unlink(int slot) {
+            byte queue = queueOf[slot];
+            if (prev[slot] >= 0) {
+                next[prev[slot]] = next[slot];
+            } else {
+                head[queue] = next[slot];
+            }
+            if (next[slot] >= 0) {
+                prev[next[slot]] = prev[slot];
+            } else {
+                tail[queue] = prev[slot];
+            }
+            queueSize[queue]--;
+        }
+
+        private int find(long key, long hash) {
+            for (int i = (int) hash & tableMask; table[i] != 0; i = (i + 1) & tableMask) {
+                int slot = table[i] - 1;
+                if (keys[slot] == key) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private void insertIndex(int slot, long hash) {
+            int i = (int) hash & tableMask;
+            while (table[i] != 0) {
+                i = (i + 1) & tableMask;
+            }
+            table[i] = slot + 1;
+        }
+
+        /**
+         * Удаляет ключ из индекса со сдвигом следующих записей кластера назад,
+         * чтобы не оставлять пометок об удалении
+         */
+        private void removeIndex(long key) {
+            int i = (int) mix(key) & tableMask;
+            while (keys[table[i] - 1] != key) {
+                i = (i + 1) & tableMask;
+            }
+
+            int gap = i;
+            for (int j = (gap + 1) & tableMask; table[j] != 0; j = (j + 1) & tableMask) {
+                int home = (int) mix(keys[table[j] - 1]) & tableMask;
+                // Запись j можно перенести в gap, если gap лежит между home и j по кругу
+                if (((j - home) & tableMask) >= ((j - gap) & tableMask)) {
+                    table[gap] = table[j];
+                    gap = j;
+                }
+            }
+            table[gap] = 0;
+        }
+    }
+
+    /**
+     * Приближённый счётчик частот обращений (count-min sketch) с 4-битными счётчиками
+     * и периодическим делением всех счётчиков пополам, чтобы старые обращения забывались
+     */
+    private static final class FrequencySketch {
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+        };
+
+        private final long[] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int capacity) {
+            int size = Integer.highestOneBit(Math.max(8, capacity) - 1) * 2;
+            table = new long[size];
+            mask = size - 1;
+            sampleSize = 10 * capacity;
+        }
+
+        int frequency(long hash) {
+            int frequency = 15;
+            for (int i = 0; i < 4; i++) {
+                long h = rehash(hash, i);
+                int index = (int) (h >>> 32) & mask;
+                int shift = (int) (h & 15) << 2;
+                frequency = Math.min(frequency, (int) ((table[index] >>> shift) & 15));
+            }
+            return frequency;
+        }
+
+        void increment(long hash) {
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                long h = rehash(hash, i);
+                int index = (int) (h >>> 32) & mask;
+                int shift = (int) (h & 15) << 2;
+                if (((table[index] >>> shift) & 15) < 15) {
+                    table[index] += 1L << shift;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & 0x7777777777777777L;
+                }
+                additions /= 2;
+            }
+        }
+
+        private static long rehash(long hash, int i) {
+            long h = (hash + SEEDS[i]) * SEEDS[(i + 1) & 3];
+            return h ^ (h >>> 31);
+        }
+    }
+}
@@ -0,0 +1,565 @@
+package functions;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+/**
+ * Табулированная функция, хранящая координаты точек вне кучи Java
+ * в прямых (direct) буферах: абсциссы и ординаты лежат в двух буферах DoubleBuffer.
+ * Большие таблицы не увеличивают кучу и не сканируются сборщиком мусора.
+ *
+ * Проверки корректности точек и интерполяция совпадают с ArrayTabulatedFunction.
+ *
+ * Объект следует закрывать методом close() (например, в try-with-resources):
+ * после закрытия ссылки на буферы сбрасываются, и любые обращения к функции
+ * приводят к IllegalStateException. Память прямого буфера освобождается
+ * очистителем (Cleaner) буфера, как только на него не остаётся ссылок.
+ */
+public class OffHeapTabulatedFunction implements TabulatedFunction, Serializable, AutoCloseable {
+    private static final long serialVersionUID = 7L;
+
+    private transient DoubleBuffer xs;
+    private transient DoubleBuffer ys;
+    private transient int size;
+    private transient boolean closed;
+    // Индекс накопленных интегралов, создаётся при первом интегрировании
+    private transient volatile IntegralIndex integralIndex;
+    // Индекс экстремумов на отрезках, создаётся при первом запросе
+    private transient volatile ExtremaIndex extremaIndex;
+
+    public OffHeapTabulatedFunction(double leftX, double rightX, int pointsCount) {
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("pointsCount must be at least 2");
+        }
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("leftX must be less than rightX");
+        }
+
+        allocate(pointsCount + 2);
+        size = pointsCount;
+        double step = (rightX - leftX) / (pointsCount - 1);
+        for (int i = 0; i < pointsCount; i++) {
+            xs.put(i, leftX + i * step);
+            ys.put(i, 0);
+        }
+    }
+
+    public OffHeapTabulatedFunction(double leftX, double rightX, double[] values) {
+        if (values.length < 2) {
+            throw new IllegalArgumentException("values array must have at least 2 elements");
+        }
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("leftX must be less than rightX");
+        }
+
+        allocate(values.length + 2);
+        size = values.length;
+        double step = (rightX - leftX) / (values.length - 1);
+        for (int i = 0; i < values.length; i++) {
+            xs.put(i, leftX + i * step);
+        }
+        ys.put(0, values, 0, values.length);
+    }
+
+    public OffHeapTabulatedFunction(FunctionPoint[] pointsArray) {
+        if (pointsArray == null) {
+            throw new IllegalArgumentException("Points array cannot be null");
+        }
+        if (pointsArray.length < 2) {
+            throw new IllegalArgumentException("Points array must contain at least 2 points");
+        }
+
+        for (int i = 1; i < pointsArray.length; i++) {
+            if (pointsArray[i] == null || pointsArray[i-1] == null) {
+                throw new IllegalArgumentException("Points array cannot contain null elements");
+            }
+            if (pointsArray[i].getX() <= pointsArray[i-1].getX()) {
+                throw new IllegalArgumentException(
+                        "Points must be strictly increasing by x. " +
+                                "Point " + i + " has x=" + pointsArray[i].getX() +
+                                " which is not greater than point " + (i-1) +
+                                " with x=" + pointsArray[i-1].getX()
+                );
+            }
+        }
+
+        allocate(pointsArray.length + 2);
+        size = pointsArray.length;
+        for (int i = 0; i < pointsArray.length; i++) {
+            xs.put(i, pointsArray[i].getX());
+            ys.put(i, pointsArray[i].getY());
+        }
+    }
+
+    /**
+     * Копирует точки другой табулированной функции во внекучевое хранилище.
+     * @param function исходная функция
+     * @throws IllegalArgumentException если function равна null
+     */
+    public OffHeapTabulatedFunction(TabulatedFunction function) {
+        if (function == null) {
+            throw new IllegalArgumentException("Function cannot be null");
+        }
+
+        int pointsCount = function.getPointsCount();
+        allocate(pointsCount + 2);
+        size = pointsCount;
+        for (int i = 0; i < pointsCount; i++) {
+            xs.put(i, function.getPointX(i));
+            ys.put(i, function.getPointY(i));
+        }
+    }
+
+    /**
+     * Копирует точки в новую функцию ArrayTabulatedFunction в куче.
+     * @return копия функции
+     */
+    public ArrayTabulatedFunction toArrayTabulatedFunction() {
+        return new ArrayTabulatedFunction(toPoints());
+    }
+
+    /**
+     * Копирует точки в новую функцию LinkedListTabulatedFunction в куче.
+     * @return копия функции
+     */
+    public LinkedListTabulatedFunction toLinkedListTabulatedFunction() {
+        return new LinkedListTabulatedFunction(toPoints());
+    }
+
+    /**
+     * Закрывает функцию и отпускает внекучевые буферы. Повторный вызов ничего не делает.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        xs = null;
+        ys = null;
+        size = 0;
+        integralIndex = null;
+        extremaIndex = null;
+    }
+
+    /**
+     * Проверяет, закрыта ли функция
+     * @return true после вызова close()
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    // === РЕАЛИЗАЦИЯ МЕТОДОВ ИЗ TabulatedFunction ===
+    @Override
+    public int getPointsCount() {
+        ensureOpen();
+        return size;
+    }
+
+    @Override
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return new FunctionPoint(xs.get(index), ys.get(index));
+    }
+
+    @Override
+    public void setPoint(int index, FunctionPoint point)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        checkIndex(index);
+
+        if (!isValidXPosition(index, point.getX())) {
+            throw new InappropriateFunctionPointException(
+                    "New x-coordinate " + point.getX() + " at index " + index +
+                            " would violate the ordering of points"
+            );
+        }
+
+        xs.put(index, point.getX());
+        ys.put(index, point.getY());
+        notifyPointChanged(index);
+        DomainCache.domainChanged();
+    }
+
+    @Override
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return xs.get(index);
+    }
+
+    @Override
+    public void setPointX(int index, double x)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        checkIndex(index);
+
+        if (Math.abs(xs.get(index) - x) < 1e-10) {
+            return;
+        }
+
+        if (!isValidXPosition(index, x)) {
+            throw new InappropriateFunctionPointException(
+                    "New x-coordinate " + x + " at index " + index +
+                            " would violate the ordering of points"
+            );
+        }
+
+        // Точки упорядочены, поэтому совпасть по x можно только с соседями
+        if ((index > 0 && Math.abs(xs.get(index - 1) - x) < 1e-10) ||
+                (index < size - 1 && Math.abs(xs.get(index + 1) - x) < 1e-10)) {
+            throw new InappropriateFunctionPointException("Point with x=" + x + " already exists");
+        }
+
+        xs.put(index, x);
+        notifyPointChanged(index);
+        DomainCache.domainChanged();
+    }
+
+    @Override
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return ys.get(index);
+    }
+
+    @Override
+    public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        ys.put(index, y);
+        notifyPointChanged(index);
+    }
+
+    @Override
+    public void deletePoint(int index) throws FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        checkIndex(index);
+        if (size <= 2) {
+            throw new IllegalStateException("Cannot delete point - function must have at least 2 points");
+        }
+
+        for (int i = index; i < size - 1; i++) {
+            xs.put(i, xs.get(i + 1));
+            ys.put(i, ys.get(i + 1));
+        }
+        size--;
+        notifyPointsChanged();
+        DomainCache.domainChanged();
+    }
+
+    @Override
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        ensureOpen();
+        double x = point.getX();
+
+        // Позиция вставки - первая точка с абсциссой не меньше x
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xs.get(mid) < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int insertIndex = low;
+
+        if (insertIndex < size && Math.abs(xs.get(insertIndex) - x) < 1e-10) {
+            throw new InappropriateFunctionPointException("Point with x=" + x + " already exists");
+        }
+
+        if (size >= xs.capacity()) {
+            reallocate(xs.capacity() * 3 / 2 + 1);
+        }
+
+        for (int i = size; i > insertIndex; i--) {
+            xs.put(i, xs.get(i - 1));
+            ys.put(i, ys.get(i - 1));
+        }
+        xs.put(insertIndex, x);
+        ys.put(insertIndex, point.getY());
+        size++;
+        notifyPointsChanged();
+        DomainCache.domainChanged();
+    }
+
+    @Override
+    public void printFunction() {
+        System.out.println("Табулированная функция (вне кучи):");
+        System.out.println("-----------------------");
+
+        for (int i = 0; i < getPointsCount(); i++) {
+            try {
+                FunctionPoint point = getPoint(i);
+                System.out.printf("Точка %d: (%.4f, %.4f)%n",
+                        i, point.getX(), point.getY());
+            } catch (FunctionPointIndexOutOfBoundsException e) {
+                System.out.println("Ошибка при получении точки " + i);
+            }
+        }
+
+        System.out.println("-----------------------");
+        System.out.printf("Область определения: [%.4f, %.4f]%n",
+                getLeftDomainBorder(), getRightDomainBorder());
+        System.out.printf("Количество точек: %d%n", getPointsCount());
+    }
+
+    // === РЕАЛИЗАЦИЯ МЕТОДОВ ИЗ Function ===
+    @Override
+    public double getLeftDomainBorder() {
+        ensureOpen();
+        return xs.get(0);
+    }
+
+    @Override
+    public double getRightDomainBorder() {
+        ensureOpen();
+        return xs.get(size - 1);
+    }
+
+    @Override
+    public double getFunctionValue(double x) {
+        ensureOpen();
+        return valueAt(x);
+    }
+
+    /**
+     * Вычисляет значение и наклон отрезка ломаной, содержащего x; в узле берётся
+     * наклон отрезка справа от него, в последнем узле - слева
+     */
+    @Override
+    public void getValueAndDerivative(double x, double[] result) {
+        ensureOpen();
+        if (x < xs.get(0) || x > xs.get(size - 1)) {
+            result[0] = Double.NaN;
+            result[1] = Double.NaN;
+            return;
+        }
+
+        int i = findSegment(x);
+        double x1 = xs.get(i);
+        double x2 = xs.get(i + 1);
+        double y1 = ys.get(i);
+        double y2 = ys.get(i + 1);
+        double k = (y2 - y1) / (x2 - x1);
+        result[1] = k;
+
+        if (Math.abs(x - x1) < 1e-10) {
+            result[0] = y1;
+        } else if (Math.abs(x - x2) < 1e-10) {
+            result[0] = y2;
+        } else {
+            result[0] = y1 + k * (x - x1);
+        }
+    }
+
+    @Override
+    public void getFunctionValues(double[] arguments, int argumentsOffset, double[] out, int outOffset, int length) {
+        ensureOpen();
+        for (int i = 0; i < length; i++) {
+            out[outOffset + i] = valueAt(arguments[argumentsOffset + i]);
+        }
+    }
+
+    // === СЕРИАЛИЗАЦИЯ ===
+
+    /**
+     * Записывает количество точек и их координаты; закрытая функция не сериализуется.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ensureOpen();
+        out.defaultWriteObject();
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeDouble(xs.get(i));
+            out.writeDouble(ys.get(i));
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int count = in.readInt();
+        if (count < 2) {
+            throw new InvalidObjectException("Invalid data: points count must be at least 2, got " + count);
+        }
+
+        allocate(count + 2);
+        for (int i = 0; i < count; i++) {
+            double x = in.readDouble();
+            double y = in.readDouble();
+            if (i > 0 && x <= xs.get(i - 1)) {
+                throw new InvalidObjectException("Invalid data: points are not strictly increasing by x");
+            }
+            xs.put(i, x);
+            ys.put(i, y);
+        }
+        size = count;
+    }
+
+    /**
+     * Возвращает индекс накопленных интегралов, читающий буферы напрямую
+     * @throws IllegalStateException если функция закрыта
+     */
+    synchronized IntegralIndex integralIndex() {
+        ensureOpen();
+        if (integralIndex == null) {
+            integralIndex = new IntegralIndex(this) {
+                @Override
+                protected int pointsCount() {
+                    return size;
+                }
+
+                @Override
+                protected double pointX(int index) {
+                    return xs.get(index);
+                }
+
+                @Override
+                protected double pointY(int index) {
+                    return ys.get(index);
+                }
+            };
+        }
+        return integralIndex;
+    }
+
+    /**
+     * Возвращает индекс экстремумов на отрезках (дерево отрезков), читающий буферы напрямую
+     * @throws IllegalStateException если функция закрыта
+     */
+    synchronized ExtremaIndex extremaIndex() {
+        ensureOpen();
+        if (extremaIndex == null) {
+            extremaIndex = new ExtremaIndex.SegmentTree(this) {
+                @Override
+                protected int pointsCount() {
+                    return size;
+                }
+
+                @Override
+                protected double pointX(int index) {
+                    return xs.get(index);
+                }
+
+                @Override
+                protected double pointY(int index) {
+                    return ys.get(index);
+                }
+            };
+        }
+        return extremaIndex;
+    }
+
+    /**
+     * Обновляет индексы интегралов и экстремумов после изменения координат точки index
+     */
+    private void notifyPointChanged(int index) {
+        if (integralIndex != null) {
+            integralIndex.pointChanged(index);
+        }
+        if (extremaIndex != null) {
+            extremaIndex.pointChanged(index);
+        }
+    }
+
+    /**
+     * Сбрасывает индексы интегралов и экстремумов после добавления или удаления точек
+     */
+    private void notifyPointsChanged() {
+        if (integralIndex != null) {
+            integralIndex.invalidate();
+        }
+        if (extremaIndex != null) {
+            extremaIndex.invalidate();
+        }
+    }
+
+    // Вспомогательные методы
+
+    private double valueAt(double x) {
+        if (x < xs.get(0) || x > xs.get(size - 1)) {
+            return Double.NaN;
+        }
+
+        int low = findSegment(x);
+        double x1 = xs.get(low);
+        double x2 = xs.get(low + 1);
+        double y1 = ys.get(low);
+        double y2 = ys.get(low + 1);
+
+        if (Math.abs(x - x1) < 1e-10) return y1;
+        if (Math.abs(x - x2) < 1e-10) return y2;
+
+        double k = (y2 - y1) / (x2 - x1);
+        return y1 + k * (x - x1);
+    }
+
+    /**
+     * Наибольший i из [0, size - 2], для которого xs[i] <= x
+     */
+    private int findSegment(double x) {
+        int low = 0;
+        int high = size - 1;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (xs.get(mid) <= x) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private FunctionPoint[] toPoints() {
+        ensureOpen();
+        FunctionPoint[] points = new FunctionPoint[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = new FunctionPoint(xs.get(i), ys.get(i));
+        }
+        return points;
+    }
+
+    private boolean isValidXPosition(int index, double newX) {
+        if (index > 0 && newX <= xs.get(index - 1)) {
+            return false;
+        }
+        if (index < size - 1 && newX >= xs.get(index + 1)) {
+            return false;
+        }
+        return true;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Off-heap tabulated function is closed");
+        }
+    }
+
+    private void checkIndex(int index) {
+        ensureOpen();
+        if (index < 0 || index >= size) {
+            throw new FunctionPointIndexOutOfBoundsException("Index out of bounds: " + index);
+        }
+    }
+
+    private void allocate(int capacity) {
+        xs = newBuffer(capacity);
+        ys = newBuffer(capacity);
+    }
+
+    private void reallocate(int capacity) {
+        DoubleBuffer newXs = newBuffer(capacity);
+        DoubleBuffer newYs = newBuffer(capacity);
+        newXs.put(0, xs, 0, size);
+        newYs.put(0, ys, 0, size);
+        xs = newXs;
+        ys = newYs;
+    }
+
+    private static DoubleBuffer newBuffer(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * Double.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asDoubleBuffer();
+    }
+}
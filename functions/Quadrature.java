@@ -0,0 +1,617 @@
+package functions;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Численное интегрирование произвольной функции с заданной точностью.
+ * Объект задаёт метод, допустимую погрешность, число потоков и предельное число
+ * вычислений функции; сам интеграл вычисляется методом {@link #integrate(Function, double, double)}.
+ * Объекты неизменяемы.
+ * <p>
+ * Интегрирование останавливается, когда оценка погрешности не превышает
+ * tolerance * max(1, |I|), то есть tolerance - абсолютная погрешность для интегралов
+ * порядка единицы и относительная для больших. Функция вычисляется пакетами точек через
+ * getFunctionValues; при числе потоков больше одного пакеты делятся между задачами ForkJoin.
+ * Частичные суммы складываются в одном и том же порядке, поэтому результат
+ * не зависит от числа потоков.
+ */
+public final class Quadrature {
+
+    /**
+     * Метод интегрирования
+     */
+    public enum Method {
+        /**
+         * Составное правило Гаусса–Лежандра: отрезок делится на 1, 2, 4, ... равных частей,
+         * пока два соседних приближения не совпадут с заданной точностью.
+         * Подходит для гладких функций без особенностей.
+         */
+        GAUSS_LEGENDRE,
+        /**
+         * Адаптивное правило Гаусса–Кронрода по 7 и 15 узлам: делятся только те части,
+         * на которых оценка погрешности больше их доли допустимой погрешности.
+         * Подходит для большинства функций, включая функции с изломами и острыми пиками.
+         */
+        GAUSS_KRONROD,
+        /**
+         * Двойное экспоненциальное преобразование (tanh-sinh): узлы сгущаются к концам отрезка,
+         * а веса убывают дважды экспоненциально. Подходит для особенностей на концах,
+         * например для логарифма или x^(-1/2) в нуле.
+         */
+        TANH_SINH
+    }
+
+    /**
+     * Допустимая погрешность по умолчанию
+     */
+    public static final double DEFAULT_TOLERANCE = 1e-10;
+
+    /**
+     * Предельное число вычислений функции по умолчанию
+     */
+    public static final int DEFAULT_MAX_EVALUATIONS = 1 << 20;
+
+    // Наибольшее число узлов правила Гаусса–Лежандра
+    private static final int MAX_GAUSS_LEGENDRE_POINTS = 128;
+
+    // Узлы tanh-sinh берутся при |t| <= TANH_SINH_T_MAX; дальше расстояние до конца отрезка
+    // и веса обращаются в машинный ноль
+    private static final double TANH_SINH_T_MAX = 6.5;
+
+    // Узлы правила Кронрода на [0, 1]: нечётные элементы - узлы правила Гаусса, последний - середина
+    private static final double[] KRONROD_NODES = {
+            0.991455371120812639206854697526329,
+            0.949107912342758524526189684047851,
+            0.864864423359769072789712788640926,
+            0.741531185599394439863864773280788,
+            0.586087235467691130294144845693013,
+            0.405845151377397166906606412076961,
+            0.207784955007898467600689403773245,
+            0.0
+    };
+
+    private static final double[] KRONROD_WEIGHTS = {
+            0.022935322010529224963732008058970,
+            0.063092092629978553290700663189204,
+            0.104790010322250183839876322541518,
+            0.140653259715525918745189590510238,
+            0.169004726639267902826583426598550,
+            0.190350578064785409913256402421014,
+            0.204432940075298892414161999234649,
+            0.209482141084727828012999174891714
+    };
+
+    // Веса правила Гаусса по 7 узлам для KRONROD_NODES[1], [3], [5] и середины
+    private static final double[] GAUSS_WEIGHTS = {
+            0.129484966168869693270611432679082,
+            0.279705391489276667901467771423780,
+            0.381830050505118944950369775488975,
+            0.417959183673469387755102040816327
+    };
+
+    // Число узлов правила Кронрода на одной части разбиения
+    private static final int KRONROD_POINTS = 15;
+
+    private final Method method;
+    // Узлы и веса правила Гаусса–Лежандра на [-1, 1]; null для других методов
+    private final double[] nodes;
+    private final double[] weights;
+    private final double tolerance;
+    private final int parallelism;
+    private final int maxEvaluations;
+
+    private Quadrature(Method method, double[] nodes, double[] weights,
+                       double tolerance, int parallelism, int maxEvaluations) {
+        if (!(tolerance > 0) || Double.isInfinite(tolerance)) {
+            throw new IllegalArgumentException("Допустимая погрешность должна быть положительным числом. Получено: " + tolerance);
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Число потоков должно быть положительным. Получено: " + parallelism);
+        }
+        if (maxEvaluations < 1) {
+            throw new IllegalArgumentException("Предельное число вычислений должно быть положительным. Получено: " + maxEvaluations);
+        }
+        this.method = method;
+        this.nodes = nodes;
+        this.weights = weights;
+        this.tolerance = tolerance;
+        this.parallelism = parallelism;
+        this.maxEvaluations = maxEvaluations;
+    }
+
+    /**
+     * Составное правило Гаусса–Лежандра с заданным числом узлов на каждой части
+     * @param points число узлов, от 1 до 128
+     * @return квадратура с погрешностью и пределами по умолчанию
+     * @throws IllegalArgumentException если число узлов вне [1, 128]
+     */
+    public static Quadrature gaussLegendre(int points) {
+        if (points < 1 || points > MAX_GAUSS_LEGENDRE_POINTS) {
+            throw new IllegalArgumentException(
+                    "Число узлов должно быть от 1 до " + MAX_GAUSS_LEGENDRE_POINTS + ". Получено: " + points);
+        }
+
+        // Корни многочлена Лежандра находятся методом Ньютона, начиная с асимптотических приближений
+        double[] nodes = new double[points];
+        double[] weights = new double[points];
+        for (int i = 0; i < (points + 1) / 2; i++) {
+            double z = Math.cos(Math.PI * (i + 0.75) / (points + 0.5));
+            double derivative = 0;
+            for (int iteration = 0; iteration < 100; iteration++) {
+                double p1 = 1;
+                double p2 = 0;
+                for (int j = 1; j <= points; j++) {
+                    double p3 = p2;
+                    p2 = p1;
+                    p1 = ((2 * j - 1) * z * p2 - (j - 1) * p3) / j;
+                }
+                derivative = points * (z * p1 - p2) / (z * z - 1);
+                double previous = z;
+                z = previous - p1 / derivative;
+                if (Math.abs(z - previous) <= 1e-16) {
+                    break;
+                }
+            }
+            double weight = 2 / ((1 - z * z) * derivative * derivative);
+            nodes[i] = -z;
+            nodes[points - 1 - i] = z;
+            weights[i] = weight;
+            weights[points - 1 - i] = weight;
+        }
+        if (points % 2 == 1) {
+            nodes[points / 2] = 0;
+        }
+        return new Quadrature(Method.GAUSS_LEGENDRE, nodes, weights,
+                DEFAULT_TOLERANCE, 1, DEFAULT_MAX_EVALUATIONS);
+    }
+
+    /**
+     * Адаптивное правило Гаусса–Кронрода по 7 и 15 узлам
+     * @return квадратура с погрешностью и пределами по умолчанию
+     */
+    public static Quadrature gaussKronrod() {
+        return new Quadrature(Method.GAUSS_KRONROD, null, null,
+                DEFAULT_TOLERANCE, 1, DEFAULT_MAX_EVALUATIONS);
+    }
+
+    /**
+     * Квадратура tanh-sinh для функций с особенностями на концах отрезка
+     * @return квадратура с погрешностью и пределами по умолчанию
+     */
+    public static Quadrature tanhSinh() {
+        return new Quadrature(Method.TANH_SINH, null, null,
+                DEFAULT_TOLERANCE, 1, DEFAULT_MAX_EVALUATIONS);
+    }
+
+    /**
+     * Возвращает квадратуру с другой допустимой погрешностью
+     * @param tolerance допустимая погрешность (положительное число)
+     * @return новая квадратура
+     * @throws IllegalArgumentException если tolerance не положительна, бесконечна или равна NaN
+     */
+    public Quadrature withTolerance(double tolerance) {
+        return new Quadrature(method, nodes, weights, tolerance, parallelism, maxEvaluations);
+    }
+
+    /**
+     * Возвращает квадратуру, вычисляющую функцию в нескольких потоках. Функция вызывается
+     * из нескольких потоков одновременно и должна это допускать
+     * @param parallelism число потоков; при совпадении с параллельностью общего пула ForkJoin
+     *                    используется он, иначе на время интегрирования создаётся свой пул
+     * @return новая квадратура
+     * @throws IllegalArgumentException если parallelism < 1
+     */
+    public Quadrature withParallelism(int parallelism) {
+        return new Quadrature(method, nodes, weights, tolerance, parallelism, maxEvaluations);
+    }
+
+    /**
+     * Возвращает квадратуру с другим предельным числом вычислений функции
+     * @param maxEvaluations предельное число вычислений функции
+     * @return новая квадратура
+     * @throws IllegalArgumentException если maxEvaluations < 1
+     */
+    public Quadrature withMaxEvaluations(int maxEvaluations) {
+        return new Quadrature(method, nodes, weights, tolerance, parallelism, maxEvaluations);
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Возвращает число узлов правила Гаусса–Лежандра
+     * @return число узлов или 0 для других методов
+     */
+    public int getPoints() {
+        return nodes == null ? 0 : nodes.length;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getMaxEvaluations() {
+        return maxEvaluations;
+    }
+
+    /**
+     * Вычисляет интеграл функции от a до b. При a > b интеграл берётся с обратным знаком.
+     * Функция вычисляется только во внутренних точках отрезка.
+     *
+     * @param f интегрируемая функция
+     * @param a нижний предел интегрирования
+     * @param b верхний предел интегрирования
+     * @return значение интеграла
+     * @throws IllegalArgumentException если f равна null
+     * @throws IllegalArgumentException если пределы бесконечны, равны NaN или выходят за область определения
+     * @throws IllegalArgumentException если функция не определена или бесконечна в одном из узлов
+     * @throws IllegalArgumentException если точность не достигается за предельное число вычислений
+     */
+    public double integrate(Function f, double a, double b) {
+        if (f == null) {
+            throw new IllegalArgumentException("Функция не может быть null");
+        }
+        if (Double.isNaN(a) || Double.isInfinite(a) || Double.isNaN(b) || Double.isInfinite(b)) {
+            throw new IllegalArgumentException("Пределы интегрирования должны быть конечными. Получено: " + a + ", " + b);
+        }
+        if (a < f.getLeftDomainBorder() || a > f.getRightDomainBorder() ||
+                b < f.getLeftDomainBorder() || b > f.getRightDomainBorder()) {
+            throw new IllegalArgumentException(
+                    "Границы интегрирования выходят за область определения функции [" +
+                            f.getLeftDomainBorder() + ", " + f.getRightDomainBorder() + "]"
+            );
+        }
+        if (a == b) {
+            return 0;
+        }
+        if (a > b) {
+            return -integrate(f, b, a);
+        }
+
+        ForkJoinPool pool = null;
+        boolean ownPool = false;
+        if (parallelism > 1) {
+            if (parallelism == ForkJoinPool.getCommonPoolParallelism()) {
+                pool = ForkJoinPool.commonPool();
+            } else {
+                pool = new ForkJoinPool(parallelism);
+                ownPool = true;
+            }
+        }
+
+        try {
+            switch (method) {
+                case GAUSS_LEGENDRE:
+                    return gaussLegendre(f, a, b, pool);
+                case GAUSS_KRONROD:
+                    return gaussKronrod(f, a, b, pool);
+                default:
+                    return tanhSinh(f, a, b, pool);
+            }
+        } finally {
+            if (ownPool) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private double gaussLegendre(Function f, double a, double b, ForkJoinPool pool) {
+        int n = nodes.length;
+        long evaluations = 0;
+        double previous = Double.NaN;
+
+        for (int panels = 1; evaluations + (long) panels * n <= maxEvaluations; panels *= 2) {
+            int count = panels * n;
+            double[] xs = new double[count];
+            double width = (b - a) / panels;
+            for (int p = 0; p < panels; p++) {
+                double lo = a + p * width;
+                double hi = p == panels - 1 ? b : a + (p + 1) * width;
+                double center = (lo + hi) / 2;
+                double half = (hi - lo) / 2;
+                for (int k = 0; k < n; k++) {
+                    xs[p * n + k] = center + half * nodes[k];
+                }
+            }
+            double[] ys = evaluate(f, xs, count, pool);
+            evaluations += count;
+
+            double integral = 0;
+            for (int p = 0; p < panels; p++) {
+                double lo = a + p * width;
+                double hi = p == panels - 1 ? b : a + (p + 1) * width;
+                double sum = 0;
+                for (int k = 0; k < n; k++) {
+                    sum += weights[k] * ys[p * n + k];
+                }
+                integral += sum * (hi - lo) / 2;
+            }
+
+            if (panels > 1 && Math.abs(integral - previous) <= target(integral)) {
+                return integral;
+            }
+            previous = integral;
+        }
+        throw notAchieved();
+    }
+
+    private double gaussKronrod(Function f, double a, double b, ForkJoinPool pool) {
+        // Части разбиения в порядке возрастания x, их интегралы и оценки погрешности
+        double[] los = {a};
+        double[] his = {b};
+        double[] results = new double[1];
+        double[] errors = new double[1];
+        int count = 1;
+        long evaluations = KRONROD_POINTS;
+        kronrod(f, los, his, 1, results, errors, pool);
+
+        while (true) {
+            double integral = 0;
+            double error = 0;
+            for (int i = 0; i < count; i++) {
+                integral += results[i];
+                error += errors[i];
+            }
+            double target = target(integral);
+            if (error <= target) {
+                return integral;
+            }
+
+            // Делятся части, погрешность которых больше их доли допустимой погрешности;
+            // при этом сумма оценок по всем частям не превышает допустимой погрешности
+            boolean[] split = new boolean[count];
+            int splits = 0;
+            for (int i = 0; i < count; i++) {
+                double width = his[i] - los[i];
+                double minWidth = 64 * Math.ulp(Math.max(Math.abs(los[i]), Math.abs(his[i])));
+                if (errors[i] > target * width / (b - a) && width > minWidth) {
+                    split[i] = true;
+                    splits++;
+                }
+            }
+            evaluations += 2L * splits * KRONROD_POINTS;
+            if (splits == 0 || evaluations > maxEvaluations) {
+                throw notAchieved();
+            }
+
+            double[] halfLos = new double[2 * splits];
+            double[] halfHis = new double[2 * splits];
+            int h = 0;
+            for (int i = 0; i < count; i++) {
+                if (split[i]) {
+                    double middle = (los[i] + his[i]) / 2;
+                    halfLos[h] = los[i];
+                    halfHis[h++] = middle;
+                    halfLos[h] = middle;
+                    halfHis[h++] = his[i];
+                }
+            }
+            double[] halfResults = new double[2 * splits];
+            double[] halfErrors = new double[2 * splits];
+            kronrod(f, halfLos, halfHis, 2 * splits, halfResults, halfErrors, pool);
+
+            int newCount = count + splits;
+            double[] newLos = new double[newCount];
+            double[] newHis = new double[newCount];
+            double[] newResults = new double[newCount];
+            double[] newErrors = new double[newCount];
+            int j = 0;
+            h = 0;
+            for (int i = 0; i < count; i++) {
+                if (split[i]) {
+                    for (int k = 0; k < 2; k++, h++, j++) {
+                        newLos[j] = halfLos[h];
+                        newHis[j] = halfHis[h];
+                        newResults[j] = halfResults[h];
+                        newErrors[j] = halfErrors[h];
+                    }
+                } else {
+                    newLos[j] = los[i];
+                    newHis[j] = his[i];
+                    newResults[j] = results[i];
+                    newErrors[j] = errors[i];
+                    j++;
+                }
+            }
+            los = newLos;
+            his = newHis;
+            results = newResults;
+            errors = newErrors;
+            count = newCount;
+        }
+    }
+
+    /**
+     * Применяет правила Кронрода и Гаусса к count частям одним пакетом вычислений функции.
+     * Погрешность оценивается по разности правил с поправкой из QUADPACK, которая
+     * уменьшает оценку для гладких функций, когда разность уже мала
+     */
+    private void kronrod(Function f, double[] los, double[] his, int count,
+                         double[] results, double[] errors, ForkJoinPool pool) {
+        double[] xs = new double[count * KRONROD_POINTS];
+        for (int i = 0; i < count; i++) {
+            double center = (los[i] + his[i]) / 2;
+            double half = (his[i] - los[i]) / 2;
+            int base = i * KRONROD_POINTS;
+            xs[base] = center;
+            for (int k = 0; k < 7; k++) {
+                xs[base + 1 + 2 * k] = center - half * KRONROD_NODES[k];
+                xs[base + 2 + 2 * k] = center + half * KRONROD_NODES[k];
+            }
+        }
+        double[] ys = evaluate(f, xs, xs.length, pool);
+
+        for (int i = 0; i < count; i++) {
+            double half = (his[i] - los[i]) / 2;
+            int base = i * KRONROD_POINTS;
+            double center = ys[base];
+            double kronrod = KRONROD_WEIGHTS[7] * center;
+            double gauss = GAUSS_WEIGHTS[3] * center;
+            for (int k = 0; k < 7; k++) {
+                double pair = ys[base + 1 + 2 * k] + ys[base + 2 + 2 * k];
+                kronrod += KRONROD_WEIGHTS[k] * pair;
+                if (k % 2 == 1) {
+                    gauss += GAUSS_WEIGHTS[k / 2] * pair;
+                }
+            }
+
+            // Отклонение функции от её среднего на части, взвешенное весами Кронрода
+            double mean = kronrod / 2;
+            double deviation = KRONROD_WEIGHTS[7] * Math.abs(center - mean);
+            for (int k = 0; k < 7; k++) {
+                deviation += KRONROD_WEIGHTS[k] *
+                        (Math.abs(ys[base + 1 + 2 * k] - mean) + Math.abs(ys[base + 2 + 2 * k] - mean));
+            }
+            deviation *= half;
+
+            double error = Math.abs((kronrod - gauss) * half);
+            if (deviation != 0 && error != 0) {
+                error = deviation * Math.min(1, Math.pow(200 * error / deviation, 1.5));
+            }
+            results[i] = kronrod * half;
+            errors[i] = error;
+        }
+    }
+
+    private double tanhSinh(Function f, double a, double b, ForkJoinPool pool) {
+        double center = (a + b) / 2;
+        double half = (b - a) / 2;
+        // Сумма w(t) * f(x(t)) по всем узлам; приближение интеграла равно этой сумме, умноженной на шаг
+        double sum = 0;
+        double previous = Double.NaN;
+        long evaluations = 0;
+
+        for (int level = 0; ; level++) {
+            double h = Math.scalb(1.0, -level);
+            // На нулевом уровне берутся t = k * h при k >= 0, на следующих - только нечётные кратные h
+            int steps = (int) (TANH_SINH_T_MAX / h);
+            int first = level == 0 ? 0 : 1;
+            int stride = level == 0 ? 1 : 2;
+            int capacity = 2 * ((steps - first) / stride + 1);
+            if (evaluations + capacity > maxEvaluations) {
+                throw notAchieved();
+            }
+
+            double[] xs = new double[capacity];
+            double[] ws = new double[capacity];
+            int count = 0;
+            for (int k = first; k <= steps; k += stride) {
+                double t = k * h;
+                double u = Math.PI / 2 * Math.sinh(t);
+                double coshU = Math.cosh(u);
+                double weight = half * Math.PI / 2 * Math.cosh(t) / (coshU * coshU);
+                if (k == 0) {
+                    xs[count] = center;
+                    ws[count++] = weight;
+                    continue;
+                }
+                if (weight == 0) {
+                    break;
+                }
+                // Расстояние до конца отрезка half * (1 - tanh u) вычисляется без вычитания,
+                // чтобы узлы у концов не сливались с ними раньше времени
+                double delta = half * Math.exp(-u) / coshU;
+                double left = a + delta;
+                double right = b - delta;
+                if (left > a) {
+                    xs[count] = left;
+                    ws[count++] = weight;
+                }
+                if (right < b) {
+                    xs[count] = right;
+                    ws[count++] = weight;
+                }
+            }
+            double[] ys = evaluate(f, xs, count, pool);
+            evaluations += count;
+
+            double levelSum = 0;
+            for (int i = 0; i < count; i++) {
+                levelSum += ws[i] * ys[i];
+            }
+            sum += levelSum;
+            double integral = sum * h;
+
+            if (level >= 2 && Math.abs(integral - previous) <= target(integral)) {
+                return integral;
+            }
+            previous = integral;
+        }
+    }
+
+    /**
+     * Вычисляет функцию в первых length точках xs, при наличии пула - параллельно
+     * @throws IllegalArgumentException если функция не определена или бесконечна в одной из точек
+     */
+    private static double[] evaluate(Function f, double[] xs, int length, ForkJoinPool pool) {
+        double[] ys = new double[length];
+        if (pool == null || length <= Functions.BATCH_BLOCK_SIZE) {
+            f.getFunctionValues(xs, 0, ys, 0, length);
+        } else {
+            pool.invoke(new EvaluationTask(f, xs, ys, 0, length));
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (Double.isNaN(ys[i]) || Double.isInfinite(ys[i])) {
+                throw new IllegalArgumentException("Функция не определена или бесконечна в точке x = " + xs[i]);
+            }
+        }
+        return ys;
+    }
+
+    private double target(double integral) {
+        return tolerance * Math.max(1, Math.abs(integral));
+    }
+
+    private IllegalArgumentException notAchieved() {
+        return new IllegalArgumentException(
+                "Точность " + tolerance + " не достигается за " + maxEvaluations + " вычислений функции"
+        );
+    }
+
+    /**
+     * Задача вычисления функции в диапазоне [from, to) массива точек
+     */
+    private static class EvaluationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Function f;
+        private final double[] xs;
+        private final double[] ys;
+        private final int from;
+        private final int to;
+
+        EvaluationTask(Function f, double[] xs, double[] ys, int from, int to) {
+            this.f = f;
+            this.xs = xs;
+            this.ys = ys;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= Functions.BATCH_BLOCK_SIZE) {
+                f.getFunctionValues(xs, from, ys, from, to - from);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new EvaluationTask(f, xs, ys, from, middle),
+                    new EvaluationTask(f, xs, ys, middle, to));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Quadrature(" + method + (nodes == null ? "" : ", points=" + nodes.length) +
+                ", tolerance=" + tolerance + ", parallelism=" + parallelism +
+                ", maxEvaluations=" + maxEvaluations + ")";
+    }
+}
@@ -0,0 +1,50 @@
+package functions;
+
+/**
+ * Наименьшее и наибольшее значения табулированной функции на отрезке [a, b]
+ * и точки, в которых они достигаются. Результат
+ * {@link TabulatedFunctions#rangeExtrema(TabulatedFunction, double, double)}.
+ * Объекты неизменяемы.
+ */
+public final class RangeExtrema {
+    private final double min;
+    private final double argMin;
+    private final double max;
+    private final double argMax;
+
+    RangeExtrema(double min, double argMin, double max, double argMax) {
+        this.min = min;
+        this.argMin = argMin;
+        this.max = max;
+        this.argMax = argMax;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Возвращает точку, в которой достигается минимум; при нескольких таких точках - самую левую
+     * @return абсцисса минимума
+     */
+    public double getArgMin() {
+        return argMin;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Возвращает точку, в которой достигается максимум; при нескольких таких точках - самую левую
+     * @return абсцисса максимума
+     */
+    public double getArgMax() {
+        return argMax;
+    }
+
+    @Override
+    public String toString() {
+        return "RangeExtrema(min=" + min + " at " + argMin + ", max=" + max + " at " + argMax + ")";
+    }
+}
@@ -24,9 +24,74 @@ public interface TabulatedFunction extends Function {
 
     void addPoint(FunctionPoint point) throws InappropriateFunctionPointException;
 
+    /**
+     * Добавляет сразу несколько точек. Точки сортируются по x и проверяются до вставки:
+     * если хотя бы одна из них совпадает по x (с точностью 1e-10) с существующей точкой
+     * или с другой добавляемой точкой, выбрасывается исключение и функция не изменяется.
+     * Реализация по умолчанию после проверки добавляет точки по одной,
+     * классы функций переопределяют её, выполняя вставку одним слиянием.
+     * @param points добавляемые точки
+     * @throws InappropriateFunctionPointException если точка совпадает по x с другой точкой
+     * @throws IllegalArgumentException если массив или его элементы равны null
+     */
+    default void addPoints(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        FunctionPoint[] batch = TabulatedFunctions.sortForInsertion(points);
+
+        int pointsCount = getPointsCount();
+        double[] xValues = new double[pointsCount];
+        double[] yValues = new double[pointsCount];
+        for (int i = 0; i < pointsCount; i++) {
+            xValues[i] = getPointX(i);
+            yValues[i] = getPointY(i);
+        }
+        // Слияние только проверяет совпадения, результат не используется
+        TabulatedFunctions.mergeForInsertion(xValues, yValues, pointsCount, batch,
+                new double[pointsCount + batch.length], new double[pointsCount + batch.length]);
+
+        for (FunctionPoint point : batch) {
+            addPoint(point);
+        }
+    }
+
+    /**
+     * Добавляет сразу несколько точек, заданных массивами координат.
+     * @param xValues абсциссы добавляемых точек
+     * @param yValues ординаты добавляемых точек
+     * @throws InappropriateFunctionPointException если точка совпадает по x с другой точкой
+     * @throws IllegalArgumentException если массивы равны null или имеют разную длину
+     * @see #addPoints(FunctionPoint[])
+     */
+    default void addPoints(double[] xValues, double[] yValues) throws InappropriateFunctionPointException {
+        if (xValues == null || yValues == null) {
+            throw new IllegalArgumentException("Массивы координат не могут быть null");
+        }
+        if (xValues.length != yValues.length) {
+            throw new IllegalArgumentException(
+                    "Массивы x и y должны иметь одинаковую длину. " +
+                            "x.length = " + xValues.length + ", y.length = " + yValues.length
+            );
+        }
+
+        FunctionPoint[] points = new FunctionPoint[xValues.length];
+        for (int i = 0; i < xValues.length; i++) {
+            points[i] = new FunctionPoint(xValues[i], yValues[i]);
+        }
+        addPoints(points);
+    }
+
     // Метод для вывода информации о функции
     void printFunction();
 
+    /**
+     * Создаёт курсор для последовательного вычисления значений функции.
+     * Курсор запоминает последний найденный отрезок, что ускоряет проход
+     * по монотонной последовательности точек. Каждому потоку нужен свой курсор.
+     * @return новый курсор
+     */
+    default TabulatedFunctionCursor cursor() {
+        return new IndexedTabulatedFunctionCursor(this);
+    }
+
     // Методы из интерфейса Function остаются (наследуются):
     // double getLeftDomainBorder();
     // double getRightDomainBorder();
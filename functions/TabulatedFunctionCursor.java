@@ -0,0 +1,38 @@
+package functions;
+
+/**
+ * Курсор для последовательного вычисления значений табулированной функции.
+ *
+ * Курсор запоминает отрезок, на котором было вычислено предыдущее значение,
+ * и ищет отрезок для следующего x начиная с него - вперёд или назад.
+ * Поэтому проход по k возрастающим (или убывающим) точкам стоит O(n + k)
+ * вместо O(k log n) или O(n * k) при вызовах getFunctionValue самой функции.
+ *
+ * Курсор хранит изменяемое состояние и не должен использоваться несколькими
+ * потоками одновременно: каждому потоку следует создать свой курсор
+ * методом {@link TabulatedFunction#cursor()}. Пока функция не изменяется,
+ * любое количество курсоров может читать её параллельно.
+ */
+public interface TabulatedFunctionCursor extends Function {
+
+    /**
+     * Возвращает функцию, по которой перемещается курсор
+     * @return табулированная функция
+     */
+    TabulatedFunction getFunction();
+
+    /**
+     * Сбрасывает запомненный отрезок, следующий поиск начнётся с начала таблицы
+     */
+    void reset();
+
+    @Override
+    default double getLeftDomainBorder() {
+        return getFunction().getLeftDomainBorder();
+    }
+
+    @Override
+    default double getRightDomainBorder() {
+        return getFunction().getRightDomainBorder();
+    }
+}
@@ -1,8 +1,18 @@
 package functions;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Утилитный класс для работы с табулированными функциями.
@@ -18,6 +28,23 @@ public class TabulatedFunctions {
         throw new AssertionError("Нельзя создавать объекты утилитного класса TabulatedFunctions");
     }
 
+    /**
+     * Порог разбиения по умолчанию для параллельного табулирования: число точек,
+     * вычисляемых одной задачей
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
+
+    /**
+     * Максимальное число частей разбиения по умолчанию для адаптивного табулирования
+     */
+    public static final int DEFAULT_ADAPTIVE_MAX_INTERVALS = 1 << 20;
+
+    /**
+     * Число равных частей, с которых начинается адаптивное табулирование; начальное
+     * разбиение не даёт пропустить колебания, симметричные относительно середины отрезка
+     */
+    private static final int ADAPTIVE_INITIAL_INTERVALS = 16;
+
     // ==================== Методы для создания табулированных функций ====================
 
     /**
@@ -34,6 +61,75 @@ public class TabulatedFunctions {
      * @throws IllegalArgumentException если границы табулирования выходят за область определения функции
      */
     public static TabulatedFunction tabulate(Function function, double leftX, double rightX, int pointsCount) {
+        checkTabulationArguments(function, leftX, rightX, pointsCount);
+
+        // Заполняем массив точками сетки и вычисляем значения функции на месте одним пакетным вызовом
+        double[] values = new double[pointsCount];
+        double step = (rightX - leftX) / (pointsCount - 1);
+
+        for (int i = 0; i < pointsCount; i++) {
+            values[i] = leftX + i * step;
+        }
+        function.getFunctionValues(values, values);
+
+        // Сетка равномерная, поэтому по умолчанию возвращаем UniformTabulatedFunction
+        return new UniformTabulatedFunction(leftX, rightX, values);
+    }
+
+    /**
+     * Табулирует функцию на заданном отрезке, вычисляя значения параллельно в общем пуле ForkJoin
+     * с порогом разбиения {@link #DEFAULT_PARALLEL_THRESHOLD}.
+     *
+     * @see #tabulateParallel(Function, double, double, int, int, int)
+     */
+    public static TabulatedFunction tabulateParallel(Function function, double leftX, double rightX, int pointsCount) {
+        return tabulateParallel(function, leftX, rightX, pointsCount,
+                ForkJoinPool.getCommonPoolParallelism(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Табулирует функцию на заданном отрезке, вычисляя значения параллельно.
+     * Сетка делится пополам, пока в части больше threshold точек, и части вычисляются
+     * задачами ForkJoin. Каждая точка сетки и значение в ней вычисляются так же, как в
+     * {@link #tabulate(Function, double, double, int)}, поэтому результат совпадает
+     * с последовательным побитово и не зависит от числа потоков.
+     * Функция вызывается из нескольких потоков одновременно и должна это допускать;
+     * табулированные функции нельзя изменять во время табулирования.
+     *
+     * @param function функция для табулирования
+     * @param leftX левая граница отрезка табулирования
+     * @param rightX правая граница отрезка табулирования
+     * @param pointsCount количество точек табулирования (должно быть >= 2)
+     * @param parallelism число потоков; при совпадении с параллельностью общего пула используется он,
+     *                    иначе создаётся временный пул, 1 означает последовательное вычисление
+     * @param threshold максимальное число точек, вычисляемых одной задачей
+     * @return табулированная функция
+     * @throws IllegalArgumentException если parallelism < 1 или threshold < 1
+     * @throws IllegalArgumentException в тех же случаях, что и {@link #tabulate(Function, double, double, int)}
+     */
+    public static TabulatedFunction tabulateParallel(Function function, double leftX, double rightX, int pointsCount,
+                                                     int parallelism, int threshold) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Число потоков должно быть положительным. Получено: " + parallelism);
+        }
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Порог разбиения должен быть положительным. Получено: " + threshold);
+        }
+        if (parallelism == 1 || pointsCount <= threshold) {
+            return tabulate(function, leftX, rightX, pointsCount);
+        }
+        checkTabulationArguments(function, leftX, rightX, pointsCount);
+
+        double[] values = new double[pointsCount];
+        double step = (rightX - leftX) / (pointsCount - 1);
+        evaluateParallel(function, values, leftX, step, parallelism, threshold);
+        return new UniformTabulatedFunction(leftX, rightX, values);
+    }
+
+    /**
+     * Проверяет параметры табулирования
+     */
+    private static void checkTabulationArguments(Function function, double leftX, double rightX, int pointsCount) {
         // Проверка входных параметров
         if (function == null) {
             throw new IllegalArgumentException("Функция не может быть null");
@@ -62,18 +158,248 @@ public class TabulatedFunctions {
                             function.getLeftDomainBorder() + ", " + function.getRightDomainBorder() + "]"
             );
         }
+    }
 
-        // Создаем массив значений функции
-        double[] values = new double[pointsCount];
-        double step = (rightX - leftX) / (pointsCount - 1);
+    /**
+     * Заполняет values значениями функции в точках leftX + i * step параллельно
+     */
+    static void evaluateParallel(Function function, double[] values, double leftX, double step,
+                                 int parallelism, int threshold) {
+        invoke(new TabulationTask(function, values, leftX, step, 0, values.length, threshold), parallelism);
+    }
 
-        for (int i = 0; i < pointsCount; i++) {
-            double x = leftX + i * step;
-            values[i] = function.getFunctionValue(x);
+    /**
+     * Выполняет задачу в общем пуле ForkJoin, если его параллельность совпадает с заданной,
+     * иначе во временном пуле с заданным числом потоков
+     */
+    private static <T> T invoke(ForkJoinTask<T> task, int parallelism) {
+        if (parallelism == ForkJoinPool.getCommonPoolParallelism()) {
+            return ForkJoinPool.commonPool().invoke(task);
         }
 
-        // Возвращаем табулированную функцию (используем ArrayTabulatedFunction по умолчанию)
-        return new ArrayTabulatedFunction(leftX, rightX, values);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invoke(task);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Задача табулирования диапазона [from, to) сетки
+     */
+    private static class TabulationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Function function;
+        private final double[] values;
+        private final double leftX;
+        private final double step;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        TabulationTask(Function function, double[] values, double leftX, double step, int from, int to, int threshold) {
+            this.function = function;
+            this.values = values;
+            this.leftX = leftX;
+            this.step = step;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                for (int i = from; i < to; i++) {
+                    values[i] = leftX + i * step;
+                }
+                function.getFunctionValues(values, from, values, from, to - from);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new TabulationTask(function, values, leftX, step, from, middle, threshold),
+                    new TabulationTask(function, values, leftX, step, middle, to, threshold));
+        }
+    }
+
+    /**
+     * Табулирует функцию на заданном отрезке с неравномерной сеткой, при которой ошибка
+     * линейной интерполяции не превышает maxError, используя не более
+     * {@link #DEFAULT_ADAPTIVE_MAX_INTERVALS} частей разбиения.
+     *
+     * @see #tabulateAdaptive(Function, double, double, double, int)
+     */
+    public static TabulatedFunction tabulateAdaptive(Function function, double leftX, double rightX, double maxError) {
+        return tabulateAdaptive(function, leftX, rightX, maxError, DEFAULT_ADAPTIVE_MAX_INTERVALS);
+    }
+
+    /**
+     * Табулирует функцию на заданном отрезке с неравномерной сеткой, при которой ошибка
+     * линейной интерполяции не превышает maxError.
+     * <p>
+     * Отрезок делится на {@link #ADAPTIVE_INITIAL_INTERVALS} равных частей, и каждая часть
+     * рекурсивно делится пополам, пока отклонение функции от хорды в середине и четвертях
+     * части больше maxError. Затем из всех вычисленных точек жадно выбираются опорные:
+     * от каждой опорной точки хорда продлевается, пока все вычисленные точки под ней
+     * приближаются с запасом. Ошибка проверяется только в вычисленных точках,
+     * поэтому очень узкие особенности функции между ними могут быть пропущены.
+     * Части короче нескольких ulp и 1e-8 не делятся, чтобы соседние узлы оставались различимыми.
+     *
+     * @param function функция для табулирования
+     * @param leftX левая граница отрезка табулирования
+     * @param rightX правая граница отрезка табулирования
+     * @param maxError допустимая ошибка линейной интерполяции (положительное число)
+     * @param maxIntervals максимальное число частей разбиения; каждая часть добавляет
+     *                     в таблицу не более четырёх вычисленных точек
+     * @return табулированная функция на неравномерной сетке
+     * @throws IllegalArgumentException если maxError не положительна или maxIntervals < 2
+     * @throws IllegalArgumentException если функция не определена или бесконечна в одной из точек
+     * @throws IllegalArgumentException если точность не достигается за maxIntervals частей
+     * @throws IllegalArgumentException в тех же случаях, что и {@link #tabulate(Function, double, double, int)}
+     */
+    public static TabulatedFunction tabulateAdaptive(Function function, double leftX, double rightX,
+                                                     double maxError, int maxIntervals) {
+        if (!(maxError > 0) || Double.isInfinite(maxError)) {
+            throw new IllegalArgumentException("Допустимая ошибка должна быть положительным числом. Получено: " + maxError);
+        }
+        if (maxIntervals < 2) {
+            throw new IllegalArgumentException("Максимальное число частей разбиения должно быть не менее 2. Получено: " + maxIntervals);
+        }
+        checkTabulationArguments(function, leftX, rightX, 2);
+
+        // Все вычисленные точки в порядке возрастания x
+        double[] xs = new double[64];
+        double[] ys = new double[64];
+        int count = 0;
+        int intervals = 0;
+
+        // Стек частей разбиения: левый конец, середина, правый конец и значения в них
+        double[] stack = new double[6 * 64];
+        int top = 0;
+        double step = (rightX - leftX) / ADAPTIVE_INITIAL_INTERVALS;
+        for (int i = ADAPTIVE_INITIAL_INTERVALS - 1; i >= 0; i--) {
+            double a = leftX + i * step;
+            double b = i == ADAPTIVE_INITIAL_INTERVALS - 1 ? rightX : leftX + (i + 1) * step;
+            double m = (a + b) / 2;
+            if (top == stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[top++] = a;
+            stack[top++] = evaluateFinite(function, a);
+            stack[top++] = m;
+            stack[top++] = evaluateFinite(function, m);
+            stack[top++] = b;
+            stack[top++] = evaluateFinite(function, b);
+        }
+
+        while (top > 0) {
+            double fb = stack[--top];
+            double b = stack[--top];
+            double fm = stack[--top];
+            double m = stack[--top];
+            double fa = stack[--top];
+            double a = stack[--top];
+
+            double q1 = (a + m) / 2;
+            double q3 = (m + b) / 2;
+            double f1 = evaluateFinite(function, q1);
+            double f3 = evaluateFinite(function, q3);
+
+            double minWidth = Math.max(1e-8, 64 * Math.ulp(Math.max(Math.abs(a), Math.abs(b))));
+            boolean accurate = chordError(a, fa, b, fb, q1, f1) <= maxError
+                    && chordError(a, fa, b, fb, m, fm) <= maxError
+                    && chordError(a, fa, b, fb, q3, f3) <= maxError;
+
+            if (accurate || b - a < minWidth) {
+                if (++intervals > maxIntervals) {
+                    throw new IllegalArgumentException(
+                            "Точность " + maxError + " не достигается за " + maxIntervals + " частей разбиения"
+                    );
+                }
+                if (count + 4 > xs.length) {
+                    xs = Arrays.copyOf(xs, xs.length * 2);
+                    ys = Arrays.copyOf(ys, ys.length * 2);
+                }
+                xs[count] = a;
+                ys[count++] = fa;
+                xs[count] = q1;
+                ys[count++] = f1;
+                xs[count] = m;
+                ys[count++] = fm;
+                xs[count] = q3;
+                ys[count++] = f3;
+                continue;
+            }
+
+            // Правая половина кладётся первой, чтобы левая обрабатывалась раньше
+            if (top + 12 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[top++] = m;
+            stack[top++] = fm;
+            stack[top++] = q3;
+            stack[top++] = f3;
+            stack[top++] = b;
+            stack[top++] = fb;
+            stack[top++] = a;
+            stack[top++] = fa;
+            stack[top++] = q1;
+            stack[top++] = f1;
+            stack[top++] = m;
+            stack[top++] = fm;
+        }
+        if (count == xs.length) {
+            xs = Arrays.copyOf(xs, count + 1);
+            ys = Arrays.copyOf(ys, count + 1);
+        }
+        xs[count] = rightX;
+        ys[count++] = evaluateFinite(function, rightX);
+
+        // Жадный выбор опорных точек среди вычисленных. Хорда над j >= 2 промежутками между
+        // вычисленными точками проверяется не в своей середине, а в ближайшей к ней точке,
+        // где отклонение для гладкой функции меньше максимального не более чем на 1/j^2 <= 1/4,
+        // поэтому в вычисленных точках требуется запас в четверть допустимой ошибки
+        List<FunctionPoint> points = new ArrayList<>();
+        points.add(new FunctionPoint(xs[0], ys[0]));
+        int anchor = 0;
+        while (anchor < count - 1) {
+            int end = anchor + 1;
+            while (end + 1 < count && chordCovers(xs, ys, anchor, end + 1, 0.75 * maxError)) {
+                end++;
+            }
+            points.add(new FunctionPoint(xs[end], ys[end]));
+            anchor = end;
+        }
+
+        return new ArrayTabulatedFunction(points.toArray(new FunctionPoint[0]));
+    }
+
+    private static double evaluateFinite(Function function, double x) {
+        double y = function.getFunctionValue(x);
+        if (Double.isNaN(y) || Double.isInfinite(y)) {
+            throw new IllegalArgumentException("Функция не определена или бесконечна в точке x = " + x);
+        }
+        return y;
+    }
+
+    private static double chordError(double a, double fa, double b, double fb, double x, double fx) {
+        return Math.abs(fa + (fb - fa) * (x - a) / (b - a) - fx);
+    }
+
+    /**
+     * Проверяет, что хорда между вычисленными точками from и to приближает
+     * все вычисленные точки между ними с ошибкой не больше maxError
+     */
+    private static boolean chordCovers(double[] xs, double[] ys, int from, int to, double maxError) {
+        for (int k = from + 1; k < to; k++) {
+            if (chordError(xs[from], ys[from], xs[to], ys[to], xs[k], ys[k]) > maxError) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -174,7 +500,7 @@ public class TabulatedFunctions {
      * @throws IllegalArgumentException если leftX >= rightX
      */
     public static TabulatedFunction createTabulatedFunction(double leftX, double rightX, int pointsCount) {
-        return new ArrayTabulatedFunction(leftX, rightX, pointsCount);
+        return new UniformTabulatedFunction(leftX, rightX, pointsCount);
     }
 
     /**
@@ -189,7 +515,7 @@ public class TabulatedFunctions {
      * @throws IllegalArgumentException если leftX >= rightX
      */
     public static TabulatedFunction createTabulatedFunction(double leftX, double rightX, double[] yValues) {
-        return new ArrayTabulatedFunction(leftX, rightX, yValues);
+        return new UniformTabulatedFunction(leftX, rightX, yValues);
     }
 
     /**
@@ -208,6 +534,138 @@ public class TabulatedFunctions {
         return function.getFunctionValue(x);
     }
 
+    /**
+     * Вычисляет значения табулированной функции в абсциссах точек другой табулированной функции
+     * (перенос функции на другую сетку). Абсциссы сетки упорядочены, поэтому значения
+     * находятся одним слиянием двух таблиц за O(n + k).
+     *
+     * @param function табулированная функция, значения которой переносятся
+     * @param grid табулированная функция, задающая новую сетку
+     * @return новая табулированная функция с абсциссами grid и значениями function
+     * @throws IllegalArgumentException если function или grid равны null
+     * @throws IllegalArgumentException если сетка выходит за область определения функции
+     * @throws IllegalArgumentException если абсциссы сетки не упорядочены строго по возрастанию
+     */
+    public static TabulatedFunction resample(TabulatedFunction function, TabulatedFunction grid) {
+        if (function == null || grid == null) {
+            throw new IllegalArgumentException("Функции не могут быть null");
+        }
+        if (grid.getLeftDomainBorder() < function.getLeftDomainBorder() ||
+                grid.getRightDomainBorder() > function.getRightDomainBorder()) {
+            throw new IllegalArgumentException(
+                    "Сетка [" + grid.getLeftDomainBorder() + ", " + grid.getRightDomainBorder() +
+                            "] выходит за область определения функции [" +
+                            function.getLeftDomainBorder() + ", " + function.getRightDomainBorder() + "]"
+            );
+        }
+
+        int pointsCount = grid.getPointsCount();
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Сетка должна содержать не менее 2 точек. Получено: " + pointsCount);
+        }
+        double[] xValues = new double[pointsCount];
+        for (int i = 0; i < pointsCount; i++) {
+            xValues[i] = grid.getPointX(i);
+            // Сетка может быть любой реализацией, поэтому порядок абсцисс проверяется
+            if (i > 0 && xValues[i] <= xValues[i - 1]) {
+                throw new IllegalArgumentException(
+                        "Точки должны быть строго упорядочены по x. " +
+                                "Точка " + i + ": x = " + xValues[i] +
+                                " не больше точки " + (i - 1) + ": x = " + xValues[i - 1]
+                );
+            }
+        }
+        double[] yValues = new double[pointsCount];
+        function.getFunctionValues(xValues, yValues);
+
+        return new ArrayTabulatedFunction(xValues, yValues);
+    }
+
+    /**
+     * Копирует добавляемые точки, сортирует их по x и проверяет, что среди них нет совпадающих.
+     *
+     * @param points добавляемые точки
+     * @return отсортированные копии точек
+     * @throws IllegalArgumentException если массив или его элементы равны null
+     * @throws InappropriateFunctionPointException если x точки равен NaN или две точки совпадают по x
+     */
+    static FunctionPoint[] sortForInsertion(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        if (points == null) {
+            throw new IllegalArgumentException("Массив точек не может быть null");
+        }
+
+        FunctionPoint[] sorted = new FunctionPoint[points.length];
+        for (int i = 0; i < points.length; i++) {
+            if (points[i] == null) {
+                throw new IllegalArgumentException("Массив точек содержит null элемент в позиции " + i);
+            }
+            if (Double.isNaN(points[i].getX())) {
+                throw new InappropriateFunctionPointException(points[i]);
+            }
+            sorted[i] = new FunctionPoint(points[i]);
+        }
+
+        java.util.Arrays.sort(sorted, (p1, p2) -> Double.compare(p1.getX(), p2.getX()));
+
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i].getX() - sorted[i - 1].getX() < 1e-10) {
+                throw new InappropriateFunctionPointException(
+                        "Point with x=" + sorted[i].getX() + " is added more than once");
+            }
+        }
+        return sorted;
+    }
+
+    /**
+     * Сливает упорядоченные точки функции с упорядоченными добавляемыми точками за O(n + m).
+     * Все совпадения по x проверяются до того, как вызывающий код заменит своё хранилище,
+     * поэтому при исключении функция остаётся неизменной.
+     *
+     * @param xValues абсциссы существующих точек
+     * @param yValues ординаты существующих точек
+     * @param size количество существующих точек
+     * @param batch добавляемые точки, результат sortForInsertion
+     * @param outX массив для абсцисс результата (не короче size + batch.length)
+     * @param outY массив для ординат результата (не короче size + batch.length)
+     * @throws InappropriateFunctionPointException если добавляемая точка совпадает по x с существующей
+     */
+    static void mergeForInsertion(double[] xValues, double[] yValues, int size, FunctionPoint[] batch,
+                                  double[] outX, double[] outY) throws InappropriateFunctionPointException {
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < size || j < batch.length) {
+            if (j == batch.length || (i < size && xValues[i] < batch[j].getX())) {
+                if (j < batch.length && batch[j].getX() - xValues[i] < 1e-10) {
+                    throw new InappropriateFunctionPointException("Point with x=" + batch[j].getX() + " already exists");
+                }
+                outX[k] = xValues[i];
+                outY[k] = yValues[i];
+                i++;
+            } else {
+                if (i < size && xValues[i] - batch[j].getX() < 1e-10) {
+                    throw new InappropriateFunctionPointException("Point with x=" + batch[j].getX() + " already exists");
+                }
+                outX[k] = batch[j].getX();
+                outY[k] = batch[j].getY();
+                j++;
+            }
+            k++;
+        }
+    }
+
+    /**
+     * Проверяет, что точки диапазона массива не убывают (NaN нарушает порядок).
+     */
+    static boolean isSorted(double[] values, int offset, int length) {
+        for (int i = offset + 1; i < offset + length; i++) {
+            if (!(values[i] >= values[i - 1])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Находит производную табулированной функции в точке.
      * Использует численное дифференцирование.
@@ -257,6 +715,10 @@ public class TabulatedFunctions {
     /**
      * Находит интеграл табулированной функции на отрезке [a, b].
      * Использует метод трапеций.
+     * Для реализаций из этого пакета интеграл вычисляется по индексу накопленных
+     * интегралов за O(log n): индекс строится при первом вызове и обновляется
+     * при изменении точек. Для остальных реализаций трапеции между a и b суммируются
+     * за O(log n + m), где m - число узлов на отрезке.
      *
      * @param function табулированная функция
      * @param a нижний предел интегрирования
@@ -291,55 +753,387 @@ public class TabulatedFunctions {
             b = temp;
         }
 
-        // Используем метод трапеций с шагом, основанным на точках табуляции
-        int pointsCount = function.getPointsCount();
-        double result = 0.0;
+        IntegralIndex index = integralIndexOf(function);
+        if (index != null) {
+            return index.integrate(a, b);
+        }
 
-        // Находим индексы точек, между которыми находятся a и b
-        int startIndex = 0;
-        while (startIndex < pointsCount && function.getPointX(startIndex) < a) {
-            startIndex++;
+        // Отрезки, содержащие a и b, находятся бинарным поиском; площади между ними
+        // суммируются с компенсацией, части крайних трапеций учитываются поправками
+        int first = findSegment(function, a);
+        int last = findSegment(function, b);
+        double[] sum = sumSegment(function, first, last);
+        neumaierAdd(sum, -partialArea(function, first, a));
+        neumaierAdd(sum, partialArea(function, last, b));
+        return sum[0] + sum[1];
+    }
+
+    /**
+     * Возвращает индекс накопленных интегралов функции или null,
+     * если реализация его не поддерживает
+     */
+    private static IntegralIndex integralIndexOf(TabulatedFunction function) {
+        if (function instanceof ArrayTabulatedFunction) {
+            return ((ArrayTabulatedFunction) function).integralIndex();
+        }
+        if (function instanceof UniformTabulatedFunction) {
+            return ((UniformTabulatedFunction) function).integralIndex();
         }
+        if (function instanceof LinkedListTabulatedFunction) {
+            return ((LinkedListTabulatedFunction) function).integralIndex();
+        }
+        if (function instanceof ArrayTabulatedFunctionExternalizable) {
+            return ((ArrayTabulatedFunctionExternalizable) function).integralIndex();
+        }
+        if (function instanceof OffHeapTabulatedFunction) {
+            return ((OffHeapTabulatedFunction) function).integralIndex();
+        }
+        if (function instanceof MappedTabulatedFunction) {
+            return ((MappedTabulatedFunction) function).integralIndex();
+        }
+        return null;
+    }
 
-        int endIndex = startIndex;
-        while (endIndex < pointsCount && function.getPointX(endIndex) < b) {
-            endIndex++;
+    /**
+     * Находит интеграл табулированной функции на отрезке [a, b] параллельно в общем пуле ForkJoin
+     * с порогом разбиения {@link #DEFAULT_PARALLEL_THRESHOLD}.
+     *
+     * @see #integrateParallel(TabulatedFunction, double, double, int, int)
+     */
+    public static double integrateParallel(TabulatedFunction function, double a, double b) {
+        return integrateParallel(function, a, b, ForkJoinPool.getCommonPoolParallelism(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Находит интеграл табулированной функции на отрезке [a, b] методом трапеций параллельно,
+     * для очень больших таблиц. Диапазон отрезков между a и b делится пополам, пока в части
+     * больше threshold отрезков; внутри части площади складываются компенсированным
+     * суммированием (Ноймайер), а суммы частей - тоже с компенсацией в порядке разбиения.
+     * Разбиение зависит только от threshold, поэтому результат не зависит от числа потоков
+     * и воспроизводится побитово. Функцию нельзя изменять во время интегрирования.
+     *
+     * @param function табулированная функция
+     * @param a нижний предел интегрирования
+     * @param b верхний предел интегрирования
+     * @param parallelism число потоков; при совпадении с параллельностью общего пула используется он,
+     *                    иначе создаётся временный пул, 1 означает последовательное вычисление
+     * @param threshold максимальное число отрезков, суммируемых одной задачей
+     * @return приближенное значение интеграла
+     * @throws IllegalArgumentException если parallelism < 1 или threshold < 1
+     * @throws IllegalArgumentException в тех же случаях, что и {@link #integrate(TabulatedFunction, double, double)}
+     */
+    public static double integrateParallel(TabulatedFunction function, double a, double b,
+                                           int parallelism, int threshold) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Число потоков должно быть положительным. Получено: " + parallelism);
+        }
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Порог разбиения должен быть положительным. Получено: " + threshold);
+        }
+        if (function == null) {
+            throw new IllegalArgumentException("Функция не может быть null");
+        }
+        if (a < function.getLeftDomainBorder() || a > function.getRightDomainBorder() ||
+                b < function.getLeftDomainBorder() || b > function.getRightDomainBorder()) {
+            throw new IllegalArgumentException(
+                    "Границы интегрирования выходят за область определения функции [" +
+                            function.getLeftDomainBorder() + ", " + function.getRightDomainBorder() + "]"
+            );
+        }
+        if (Math.abs(a - b) < 1e-10) {
+            return 0.0;
+        }
+        if (a > b) {
+            double temp = a;
+            a = b;
+            b = temp;
         }
 
-        // Если a не совпадает с точкой табуляции, добавляем первую трапецию
-        if (startIndex > 0 && function.getPointX(startIndex - 1) < a) {
-            double x0 = function.getPointX(startIndex - 1);
-            double x1 = function.getPointX(startIndex);
-            double y0 = function.getPointY(startIndex - 1);
-            double y1 = function.getPointY(startIndex);
+        int first = findSegment(function, a);
+        int last = findSegment(function, b);
 
-            // Интерполируем значение в точке a
-            double ya = y0 + (y1 - y0) * (a - x0) / (x1 - x0);
-            result += (x1 - a) * (y1 + ya) / 2;
+        double[] sum = parallelism == 1 || last - first <= threshold
+                ? sumAreas(function, first, last, threshold)
+                : invoke(new IntegrationTask(function, first, last, threshold), parallelism);
+        neumaierAdd(sum, -partialArea(function, first, a));
+        neumaierAdd(sum, partialArea(function, last, b));
+        return sum[0] + sum[1];
+    }
+
+    /**
+     * Последовательно суммирует площади трапеций с номерами из [from, to) с тем же
+     * разбиением и порядком сложения частей, что и {@link IntegrationTask}, поэтому
+     * результат побитово совпадает с параллельным
+     */
+    private static double[] sumAreas(TabulatedFunction function, int from, int to, int threshold) {
+        if (to - from <= threshold) {
+            return sumSegment(function, from, to);
         }
+        int middle = (from + to) >>> 1;
+        double[] sum = sumAreas(function, from, middle, threshold);
+        mergeSums(sum, sumAreas(function, middle, to, threshold));
+        return sum;
+    }
 
-        // Суммируем трапеции между точками табуляции
-        for (int i = startIndex; i < endIndex - 1; i++) {
-            double x1 = function.getPointX(i);
+    /**
+     * Компенсированная сумма площадей трапеций с номерами из [from, to) одной части разбиения
+     */
+    private static double[] sumSegment(TabulatedFunction function, int from, int to) {
+        double[] sum = new double[2];
+        if (from == to) {
+            return sum;
+        }
+        double x1 = function.getPointX(from);
+        double y1 = function.getPointY(from);
+        for (int i = from; i < to; i++) {
             double x2 = function.getPointX(i + 1);
-            double y1 = function.getPointY(i);
             double y2 = function.getPointY(i + 1);
-            result += (x2 - x1) * (y1 + y2) / 2;
+            neumaierAdd(sum, (x2 - x1) * (y1 + y2) / 2);
+            x1 = x2;
+            y1 = y2;
+        }
+        return sum;
+    }
+
+    /**
+     * Прибавляет к паре sum сумму правой части разбиения
+     */
+    private static void mergeSums(double[] sum, double[] rightSum) {
+        neumaierAdd(sum, rightSum[0]);
+        sum[1] += rightSum[1];
+    }
+
+    /**
+     * Задача суммирования площадей трапеций с номерами из [from, to).
+     * Результат - пара {сумма, накопленная поправка} компенсированного суммирования
+     */
+    private static class IntegrationTask extends RecursiveTask<double[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final TabulatedFunction function;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        IntegrationTask(TabulatedFunction function, int from, int to, int threshold) {
+            this.function = function;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (to - from <= threshold) {
+                return sumSegment(function, from, to);
+            }
+
+            int middle = (from + to) >>> 1;
+            IntegrationTask right = new IntegrationTask(function, middle, to, threshold);
+            right.fork();
+            double[] sum = new IntegrationTask(function, from, middle, threshold).compute();
+            mergeSums(sum, right.join());
+            return sum;
+        }
+    }
+
+    /**
+     * Прибавляет value к паре {сумма, поправка} по схеме Ноймайера:
+     * поправка накапливает младшие разряды, потерянные при округлении суммы
+     */
+    private static void neumaierAdd(double[] sum, double value) {
+        double t = sum[0] + value;
+        if (Math.abs(sum[0]) >= Math.abs(value)) {
+            sum[1] += (sum[0] - t) + value;
+        } else {
+            sum[1] += (value - t) + sum[0];
+        }
+        sum[0] = t;
+    }
+
+    /**
+     * Наибольший i из [0, n - 2], для которого x_i <= x
+     */
+    private static int findSegment(TabulatedFunction function, double x) {
+        int low = 0;
+        int high = function.getPointsCount() - 1;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (function.getPointX(mid) <= x) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Площадь под отрезком segment ломаной от его левого конца до x
+     */
+    private static double partialArea(TabulatedFunction function, int segment, double x) {
+        double x1 = function.getPointX(segment);
+        if (x == x1) {
+            return 0;
+        }
+        double x2 = function.getPointX(segment + 1);
+        double y1 = function.getPointY(segment);
+        double y2 = function.getPointY(segment + 1);
+        double y = y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+        return (x - x1) * (y1 + y) / 2;
+    }
+
+    /**
+     * Строит первообразную табулированной функции F(x) = интеграл от левой границы до x
+     * за один проход O(n). Первообразная задана на той же сетке: в узлах её значения
+     * совпадают с integrate(function, leftX, x_i) (накопленные суммы трапеций, сложенные
+     * с компенсацией погрешности), между узлами она интерполируется линейно.
+     * Точная первообразная ломаной между узлами - парабола, отличие от хорды
+     * не превышает h * |y2 - y1| / 8 на отрезке длины h.
+     *
+     * @param function табулированная функция
+     * @return новая табулированная функция с теми же абсциссами и F(leftX) = 0
+     * @throws IllegalArgumentException если function равна null
+     */
+    public static TabulatedFunction antiderivative(TabulatedFunction function) {
+        if (function == null) {
+            throw new IllegalArgumentException("Функция не может быть null");
         }
 
-        // Если b не совпадает с точкой табуляции, добавляем последнюю трапецию
-        if (endIndex < pointsCount && function.getPointX(endIndex) > b) {
-            double x0 = function.getPointX(endIndex - 1);
-            double x1 = function.getPointX(endIndex);
-            double y0 = function.getPointY(endIndex - 1);
-            double y1 = function.getPointY(endIndex);
+        int pointsCount = function.getPointsCount();
+        double[] xValues = new double[pointsCount];
+        double[] yValues = new double[pointsCount];
 
-            // Интерполируем значение в точке b
-            double yb = y0 + (y1 - y0) * (b - x0) / (x1 - x0);
-            result += (b - x0) * (y0 + yb) / 2;
+        double x1 = function.getPointX(0);
+        double y1 = function.getPointY(0);
+        xValues[0] = x1;
+        double[] sum = new double[2];
+        for (int i = 1; i < pointsCount; i++) {
+            double x2 = function.getPointX(i);
+            double y2 = function.getPointY(i);
+            neumaierAdd(sum, (x2 - x1) * (y1 + y2) / 2);
+
+            xValues[i] = x2;
+            yValues[i] = sum[0] + sum[1];
+            x1 = x2;
+            y1 = y2;
         }
 
-        return result;
+        // Абсциссы взяты из табулированной функции и уже упорядочены
+        return new ArrayTabulatedFunction(xValues, yValues);
+    }
+
+    /**
+     * Находит наименьший x, в котором неубывающая табулированная функция принимает значение y,
+     * бинарным поиском по ординатам точек за O(log n). Для первообразной неотрицательной
+     * функции (например, функции распределения, построенной методом antiderivative)
+     * это квантиль: inverse(cdf, p * cdf.getPointY(cdf.getPointsCount() - 1)).
+     * Монотонность не проверяется: для убывающих участков результат не определён.
+     *
+     * @param function неубывающая табулированная функция
+     * @param y искомое значение
+     * @return абсцисса, в которой ломаная функции впервые достигает y
+     * @throws IllegalArgumentException если function равна null
+     * @throws IllegalArgumentException если y равно NaN или лежит вне [y_0, y_(n-1)]
+     */
+    public static double inverse(TabulatedFunction function, double y) {
+        if (function == null) {
+            throw new IllegalArgumentException("Функция не может быть null");
+        }
+
+        int pointsCount = function.getPointsCount();
+        double first = function.getPointY(0);
+        double last = function.getPointY(pointsCount - 1);
+        if (!(y >= first && y <= last)) {
+            throw new IllegalArgumentException(
+                    "Значение " + y + " лежит вне диапазона значений функции [" + first + ", " + last + "]"
+            );
+        }
+        if (y == first) {
+            return function.getPointX(0);
+        }
+
+        // Первая точка с ординатой не меньше y; y_0 < y, поэтому high >= 1
+        int low = 0;
+        int high = pointsCount - 1;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (function.getPointY(mid) < y) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+
+        double x1 = function.getPointX(low);
+        double x2 = function.getPointX(high);
+        double y1 = function.getPointY(low);
+        double y2 = function.getPointY(high);
+        if (y == y2) {
+            return x2;
+        }
+        return x1 + (y - y1) * (x2 - x1) / (y2 - y1);
+    }
+
+    /**
+     * Находит наименьшее и наибольшее значения табулированной функции на отрезке [a, b]
+     * и точки, в которых они достигаются. Учитываются узлы внутри отрезка и значения
+     * ломаной в его концах. Для реализаций из этого пакета используется индекс экстремумов:
+     * дерево отрезков для изменяемых функций (O(log n) на запрос и на изменение точки)
+     * и разреженная таблица для MappedTabulatedFunction (O(1) на запрос). Индекс строится
+     * при первом вызове. Для остальных реализаций узлы просматриваются за O(n).
+     *
+     * @param function табулированная функция
+     * @param a левый конец отрезка
+     * @param b правый конец отрезка
+     * @return экстремумы и самые левые точки, в которых они достигаются
+     * @throws IllegalArgumentException если function равна null
+     * @throws IllegalArgumentException если a или b выходят за область определения
+     */
+    public static RangeExtrema rangeExtrema(TabulatedFunction function, double a, double b) {
+        if (function == null) {
+            throw new IllegalArgumentException("Функция не может быть null");
+        }
+        if (a < function.getLeftDomainBorder() || a > function.getRightDomainBorder() ||
+                b < function.getLeftDomainBorder() || b > function.getRightDomainBorder()) {
+            throw new IllegalArgumentException(
+                    "Границы отрезка выходят за область определения функции [" +
+                            function.getLeftDomainBorder() + ", " + function.getRightDomainBorder() + "]"
+            );
+        }
+        if (a > b) {
+            double temp = a;
+            a = b;
+            b = temp;
+        }
+
+        return extremaIndexOf(function).query(a, b);
+    }
+
+    /**
+     * Возвращает индекс экстремумов функции; для реализаций не из этого пакета -
+     * временное дерево отрезков, которое строится за O(n) на каждый запрос
+     */
+    private static ExtremaIndex extremaIndexOf(TabulatedFunction function) {
+        if (function instanceof ArrayTabulatedFunction) {
+            return ((ArrayTabulatedFunction) function).extremaIndex();
+        }
+        if (function instanceof UniformTabulatedFunction) {
+            return ((UniformTabulatedFunction) function).extremaIndex();
+        }
+        if (function instanceof LinkedListTabulatedFunction) {
+            return ((LinkedListTabulatedFunction) function).extremaIndex();
+        }
+        if (function instanceof ArrayTabulatedFunctionExternalizable) {
+            return ((ArrayTabulatedFunctionExternalizable) function).extremaIndex();
+        }
+        if (function instanceof OffHeapTabulatedFunction) {
+            return ((OffHeapTabulatedFunction) function).extremaIndex();
+        }
+        if (function instanceof MappedTabulatedFunction) {
+            return ((MappedTabulatedFunction) function).extremaIndex();
+        }
+        return new ExtremaIndex.SegmentTree(function);
     }
 
     // ==================== Методы для ввода/вывода табулированных функций ====================
@@ -547,6 +1341,70 @@ public class TabulatedFunctions {
         return createTabulatedFunction(xValues, yValues);
     }
 
+    /**
+     * Записывает табулированную функцию в двоичный файл формата {@link MappedTabulatedFunction}:
+     * заголовок, затем выровненные столбцы x и y. Существующий файл перезаписывается.
+     *
+     * @param function табулированная функция для записи
+     * @param path путь к файлу
+     * @throws NullPointerException если function или path равны null
+     * @throws IOException если произошла ошибка ввода-вывода
+     */
+    public static void writeBinaryTabulatedFunction(TabulatedFunction function, Path path) throws IOException {
+        if (function == null) {
+            throw new NullPointerException("Функция не может быть null");
+        }
+        if (path == null) {
+            throw new NullPointerException("Путь к файлу не может быть null");
+        }
+
+        int pointsCount = function.getPointsCount();
+        long xOffset = MappedTabulatedFunction.HEADER_SIZE;
+        long yOffset = xOffset + (long) pointsCount * Double.BYTES;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MappedTabulatedFunction.MAGIC);
+            buffer.putInt(MappedTabulatedFunction.VERSION);
+            buffer.putLong(pointsCount);
+            buffer.putLong(xOffset);
+            buffer.putLong(yOffset);
+
+            // Столбцы пишутся блоками через один буфер
+            for (int column = 0; column < 2; column++) {
+                for (int i = 0; i < pointsCount; i++) {
+                    if (!buffer.hasRemaining()) {
+                        writeFully(channel, buffer);
+                    }
+                    buffer.putDouble(column == 0 ? function.getPointX(i) : function.getPointY(i));
+                }
+            }
+            writeFully(channel, buffer);
+        }
+    }
+
+    /**
+     * Открывает двоичный файл, записанный методом writeBinaryTabulatedFunction,
+     * отображая его в память за O(1). Возвращаемую функцию следует закрыть.
+     *
+     * @param path путь к файлу
+     * @return функция только для чтения над отображённым файлом
+     * @throws NullPointerException если path равен null
+     * @throws IOException если файл не удаётся прочитать или он имеет неверный формат
+     */
+    public static MappedTabulatedFunction mapTabulatedFunction(Path path) throws IOException {
+        return MappedTabulatedFunction.open(path);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
     /**
      * Пример использования класса TabulatedFunctions.
      */
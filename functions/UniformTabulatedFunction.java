@@ -0,0 +1,566 @@
+package functions;
+
+import java.io.Serializable;
+
+/**
+ * Табулированная функция на равномерной сетке.
+ * Хранит только начало сетки, шаг и массив значений y, абсцисса i-й точки
+ * вычисляется как leftX + (offset + i) * step. Отрезок для интерполяции находится
+ * за O(1) - одним умножением и округлением вниз.
+ *
+ * Изменения, сохраняющие равномерность сетки (setPointY, удаление крайних точек,
+ * добавление точки на расстоянии шага от края), выполняются на месте.
+ * Любое другое изменение абсцисс переводит объект в общее представление
+ * ArrayTabulatedFunction, которому далее делегируются все вызовы.
+ */
+public class UniformTabulatedFunction implements TabulatedFunction, Serializable {
+    private static final long serialVersionUID = 6L;
+
+    private double leftX;
+    // Номер первой точки относительно начала сетки: меняется при удалении и
+    // добавлении крайних точек, чтобы абсциссы остальных точек не пересчитывались
+    private int offset;
+    private double step;
+    private double inverseStep;
+    private double[] ys;
+    private int size;
+
+    // Общее представление; не null после изменения, нарушившего равномерность
+    private ArrayTabulatedFunction general;
+    // Индекс накопленных интегралов для равномерного представления
+    private transient volatile IntegralIndex integralIndex;
+    // Индекс экстремумов на отрезках, создаётся при первом запросе
+    private transient volatile ExtremaIndex extremaIndex;
+
+    public UniformTabulatedFunction(double leftX, double rightX, int pointsCount) {
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("pointsCount must be at least 2");
+        }
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("leftX must be less than rightX");
+        }
+
+        this.leftX = leftX;
+        this.step = (rightX - leftX) / (pointsCount - 1);
+        this.inverseStep = 1.0 / step;
+        this.size = pointsCount;
+        this.ys = new double[pointsCount];
+    }
+
+    public UniformTabulatedFunction(double leftX, double rightX, double[] values) {
+        if (values.length < 2) {
+            throw new IllegalArgumentException("values array must have at least 2 elements");
+        }
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("leftX must be less than rightX");
+        }
+
+        this.leftX = leftX;
+        this.step = (rightX - leftX) / (values.length - 1);
+        this.inverseStep = 1.0 / step;
+        this.size = values.length;
+        this.ys = new double[values.length];
+        System.arraycopy(values, 0, this.ys, 0, values.length);
+    }
+
+    /**
+     * Проверяет, сохраняет ли функция равномерную сетку.
+     * @return true, если функция не была переведена в общее представление
+     */
+    public boolean isUniform() {
+        return general == null;
+    }
+
+    /**
+     * Возвращает шаг сетки
+     * @return шаг сетки или Double.NaN, если сетка перестала быть равномерной
+     */
+    public double getStep() {
+        return general == null ? step : Double.NaN;
+    }
+
+    // === РЕАЛИЗАЦИЯ МЕТОДОВ ИЗ TabulatedFunction ===
+    @Override
+    public int getPointsCount() {
+        if (general != null) {
+            return general.getPointsCount();
+        }
+        return size;
+    }
+
+    @Override
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (general != null) {
+            return general.getPoint(index);
+        }
+        checkIndex(index);
+        return new FunctionPoint(nodeX(index), ys[index]);
+    }
+
+    @Override
+    public void setPoint(int index, FunctionPoint point)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        if (general != null) {
+            general.setPoint(index, point);
+            return;
+        }
+        checkIndex(index);
+
+        if (Math.abs(point.getX() - nodeX(index)) < 1e-10) {
+            ys[index] = point.getY();
+            notifyPointChanged(index);
+            return;
+        }
+
+        // Проверка до перехода в общее представление, чтобы отклонённое изменение
+        // не лишало функцию равномерной сетки
+        if (!isValidXPosition(index, point.getX())) {
+            throw new InappropriateFunctionPointException(
+                    "New x-coordinate " + point.getX() + " at index " + index +
+                            " would violate the ordering of points"
+            );
+        }
+
+        generalize();
+        general.setPoint(index, point);
+    }
+
+    @Override
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (general != null) {
+            return general.getPointX(index);
+        }
+        checkIndex(index);
+        return nodeX(index);
+    }
+
+    @Override
+    public void setPointX(int index, double x)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        if (general != null) {
+            general.setPointX(index, x);
+            return;
+        }
+        checkIndex(index);
+
+        if (Math.abs(nodeX(index) - x) < 1e-10) {
+            return;
+        }
+
+        if (!isValidXPosition(index, x)) {
+            throw new InappropriateFunctionPointException(
+                    "New x-coordinate " + x + " at index " + index +
+                            " would violate the ordering of points"
+            );
+        }
+        // Точки упорядочены, поэтому совпасть по x можно только с соседями
+        if ((index > 0 && Math.abs(nodeX(index - 1) - x) < 1e-10) ||
+                (index < size - 1 && Math.abs(nodeX(index + 1) - x) < 1e-10)) {
+            throw new InappropriateFunctionPointException("Point with x=" + x + " already exists");
+        }
+
+        generalize();
+        general.setPointX(index, x);
+    }
+
+    @Override
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (general != null) {
+            return general.getPointY(index);
+        }
+        checkIndex(index);
+        return ys[index];
+    }
+
+    @Override
+    public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        if (general != null) {
+            general.setPointY(index, y);
+            return;
+        }
+        checkIndex(index);
+        ys[index] = y;
+        notifyPointChanged(index);
+    }
+
+    @Override
+    public void deletePoint(int index) throws FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        if (general != null) {
+            general.deletePoint(index);
+            return;
+        }
+        checkIndex(index);
+        if (size <= 2) {
+            throw new IllegalStateException("Cannot delete point - function must have at least 2 points");
+        }
+
+        if (index == 0) {
+            // Удаление левой точки сдвигает первую точку сетки, шаг не меняется
+            offset++;
+            System.arraycopy(ys, 1, ys, 0, size - 1);
+            size--;
+            notifyPointsChanged();
+            DomainCache.domainChanged();
+        } else if (index == size - 1) {
+            size--;
+            notifyPointsChanged();
+            DomainCache.domainChanged();
+        } else {
+            generalize();
+            general.deletePoint(index);
+        }
+    }
+
+    @Override
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        if (general != null) {
+            general.addPoint(point);
+            return;
+        }
+
+        double x = point.getX();
+        if (Math.abs(x - nodeX(size)) < 1e-10) {
+            // Точка продолжает сетку вправо
+            ensureCapacity(size + 1);
+            ys[size] = point.getY();
+            size++;
+            notifyPointsChanged();
+            DomainCache.domainChanged();
+        } else if (Math.abs(x - nodeX(-1)) < 1e-10) {
+            // Точка продолжает сетку влево
+            ensureCapacity(size + 1);
+            System.arraycopy(ys, 0, ys, 1, size);
+            ys[0] = point.getY();
+            offset--;
+            size++;
+            notifyPointsChanged();
+            DomainCache.domainChanged();
+        } else {
+            if (x >= getLeftDomainBorder() && x <= getRightDomainBorder()) {
+                int i = findSegment(x);
+                if (Math.abs(x - nodeX(i)) < 1e-10 || Math.abs(x - nodeX(i + 1)) < 1e-10) {
+                    throw new InappropriateFunctionPointException("Point with x=" + x + " already exists");
+                }
+            }
+            generalize();
+            general.addPoint(point);
+        }
+    }
+
+    /**
+     * Добавляет точки одним слиянием. Сетка после этого в общем случае перестаёт быть равномерной,
+     * поэтому вставка выполняется в общем представлении; при исключении функция не меняется.
+     */
+    @Override
+    public void addPoints(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        if (general != null) {
+            general.addPoints(points);
+            return;
+        }
+        if (points != null && points.length == 0) {
+            return;
+        }
+
+        ArrayTabulatedFunction candidate = toGeneral();
+        candidate.addPoints(points);
+        general = candidate;
+        ys = null;
+        DomainCache.domainChanged();
+    }
+
+    @Override
+    public void printFunction() {
+        System.out.println("Табулированная функция (равномерная сетка):");
+        System.out.println("-----------------------");
+
+        for (int i = 0; i < getPointsCount(); i++) {
+            try {
+                FunctionPoint point = getPoint(i);
+                System.out.printf("Точка %d: (%.4f, %.4f)%n",
+                        i, point.getX(), point.getY());
+            } catch (FunctionPointIndexOutOfBoundsException e) {
+                System.out.println("Ошибка при получении точки " + i);
+            }
+        }
+
+        System.out.println("-----------------------");
+        System.out.printf("Область определения: [%.4f, %.4f]%n",
+                getLeftDomainBorder(), getRightDomainBorder());
+        System.out.printf("Количество точек: %d%n", getPointsCount());
+    }
+
+    // === РЕАЛИЗАЦИЯ МЕТОДОВ ИЗ Function ===
+    @Override
+    public double getLeftDomainBorder() {
+        if (general != null) {
+            return general.getLeftDomainBorder();
+        }
+        return nodeX(0);
+    }
+
+    @Override
+    public double getRightDomainBorder() {
+        if (general != null) {
+            return general.getRightDomainBorder();
+        }
+        return nodeX(size - 1);
+    }
+
+    @Override
+    public double getFunctionValue(double x) {
+        if (general != null) {
+            return general.getFunctionValue(x);
+        }
+
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+            return Double.NaN;
+        }
+
+        int i = findSegment(x);
+        double x1 = nodeX(i);
+        double x2 = nodeX(i + 1);
+
+        if (Math.abs(x - x1) < 1e-10) return ys[i];
+        if (Math.abs(x - x2) < 1e-10) return ys[i + 1];
+
+        double k = (ys[i + 1] - ys[i]) / (x2 - x1);
+        return ys[i] + k * (x - x1);
+    }
+
+    /**
+     * Вычисляет значение и наклон отрезка ломаной, содержащего x; в узле берётся
+     * наклон отрезка справа от него, в последнем узле - слева
+     */
+    @Override
+    public void getValueAndDerivative(double x, double[] result) {
+        if (general != null) {
+            general.getValueAndDerivative(x, result);
+            return;
+        }
+
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+            result[0] = Double.NaN;
+            result[1] = Double.NaN;
+            return;
+        }
+
+        int i = findSegment(x);
+        double x1 = nodeX(i);
+        double x2 = nodeX(i + 1);
+        double k = (ys[i + 1] - ys[i]) / (x2 - x1);
+        result[1] = k;
+
+        if (Math.abs(x - x1) < 1e-10) {
+            result[0] = ys[i];
+        } else if (Math.abs(x - x2) < 1e-10) {
+            result[0] = ys[i + 1];
+        } else {
+            result[0] = ys[i] + k * (x - x1);
+        }
+    }
+
+    /**
+     * Вычисляет значения для массива точек с поиском отрезка за O(1) для каждой точки
+     */
+    @Override
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        if (general != null) {
+            general.getFunctionValues(xs, xsOffset, out, outOffset, length);
+            return;
+        }
+
+        double left = getLeftDomainBorder();
+        double right = getRightDomainBorder();
+        for (int j = 0; j < length; j++) {
+            double x = xs[xsOffset + j];
+            if (x < left || x > right) {
+                out[outOffset + j] = Double.NaN;
+                continue;
+            }
+
+            int i = findSegment(x);
+            double x1 = nodeX(i);
+            double x2 = nodeX(i + 1);
+
+            if (Math.abs(x - x1) < 1e-10) {
+                out[outOffset + j] = ys[i];
+            } else if (Math.abs(x - x2) < 1e-10) {
+                out[outOffset + j] = ys[i + 1];
+            } else {
+                double k = (ys[i + 1] - ys[i]) / (x2 - x1);
+                out[outOffset + j] = ys[i] + k * (x - x1);
+            }
+        }
+    }
+
+    /**
+     * На равномерной сетке отрезок находится за O(1) и без запоминания,
+     * поэтому курсор просто вызывает getFunctionValue самой функции.
+     * @return новый курсор
+     */
+    @Override
+    public TabulatedFunctionCursor cursor() {
+        return new TabulatedFunctionCursor() {
+            @Override
+            public TabulatedFunction getFunction() {
+                return UniformTabulatedFunction.this;
+            }
+
+            @Override
+            public void reset() {
+            }
+
+            @Override
+            public double getFunctionValue(double x) {
+                return UniformTabulatedFunction.this.getFunctionValue(x);
+            }
+        };
+    }
+
+    /**
+     * Возвращает индекс накопленных интегралов: в равномерном представлении абсциссы
+     * вычисляются по номеру узла, в общем используется индекс ArrayTabulatedFunction
+     */
+    synchronized IntegralIndex integralIndex() {
+        if (general != null) {
+            return general.integralIndex();
+        }
+        if (integralIndex == null) {
+            integralIndex = new IntegralIndex(this) {
+                @Override
+                protected int pointsCount() {
+                    return size;
+                }
+
+                @Override
+                protected double pointX(int index) {
+                    return nodeX(index);
+                }
+
+                @Override
+                protected double pointY(int index) {
+                    return ys[index];
+                }
+            };
+        }
+        return integralIndex;
+    }
+
+    /**
+     * Возвращает индекс экстремумов на отрезках (дерево отрезков); в общем представлении
+     * используется индекс ArrayTabulatedFunction
+     */
+    synchronized ExtremaIndex extremaIndex() {
+        if (general != null) {
+            return general.extremaIndex();
+        }
+        if (extremaIndex == null) {
+            extremaIndex = new ExtremaIndex.SegmentTree(this) {
+                @Override
+                protected int pointsCount() {
+                    return size;
+                }
+
+                @Override
+                protected double pointX(int index) {
+                    return nodeX(index);
+                }
+
+                @Override
+                protected double pointY(int index) {
+                    return ys[index];
+                }
+            };
+        }
+        return extremaIndex;
+    }
+
+    /**
+     * Обновляет индексы интегралов и экстремумов после изменения координат точки index
+     */
+    private void notifyPointChanged(int index) {
+        if (integralIndex != null) {
+            integralIndex.pointChanged(index);
+        }
+        if (extremaIndex != null) {
+            extremaIndex.pointChanged(index);
+        }
+    }
+
+    /**
+     * Сбрасывает индексы интегралов и экстремумов после добавления или удаления точек
+     */
+    private void notifyPointsChanged() {
+        if (integralIndex != null) {
+            integralIndex.invalidate();
+        }
+        if (extremaIndex != null) {
+            extremaIndex.invalidate();
+        }
+    }
+
+    // Вспомогательные методы
+
+    /**
+     * Вычисляет индекс левого конца отрезка, содержащего x, за O(1).
+     * Погрешность округления у самых узлов компенсируется проверкой
+     * совпадения с концами отрезка в getFunctionValue.
+     */
+    private int findSegment(double x) {
+        int i = (int) Math.floor((x - leftX) * inverseStep) - offset;
+        if (i < 0) {
+            return 0;
+        }
+        if (i > size - 2) {
+            return size - 2;
+        }
+        return i;
+    }
+
+    private double nodeX(int index) {
+        return leftX + (offset + index) * step;
+    }
+
+    /**
+     * Проверяет, что новая абсцисса точки index не нарушает порядок точек
+     */
+    private boolean isValidXPosition(int index, double newX) {
+        if (index > 0 && newX <= nodeX(index - 1)) {
+            return false;
+        }
+        if (index < size - 1 && newX >= nodeX(index + 1)) {
+            return false;
+        }
+        return true;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new FunctionPointIndexOutOfBoundsException("Index out of bounds: " + index);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ys.length) {
+            double[] newYs = new double[Math.max(capacity, ys.length * 3 / 2 + 1)];
+            System.arraycopy(ys, 0, newYs, 0, size);
+            ys = newYs;
+        }
+    }
+
+    /**
+     * Переводит функцию в общее представление с явным хранением абсцисс.
+     */
+    private void generalize() {
+        general = toGeneral();
+        ys = null;
+    }
+
+    private ArrayTabulatedFunction toGeneral() {
+        FunctionPoint[] points = new FunctionPoint[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = new FunctionPoint(nodeX(i), ys[i]);
+        }
+        return new ArrayTabulatedFunction(points);
+    }
+}
@@ -23,6 +23,25 @@ public class Cos extends TrigonometricFunction {
         return Math.cos(x);
     }
 
+    /**
+     * Вычисляет косинус сразу для массива точек
+     */
+    @Override
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            out[outOffset + i] = Math.cos(xs[xsOffset + i]);
+        }
+    }
+
+    /**
+     * Вычисляет косинус и его производную -sin(x)
+     */
+    @Override
+    public void getValueAndDerivative(double x, double[] result) {
+        result[0] = Math.cos(x);
+        result[1] = -Math.sin(x);
+    }
+
     @Override
     public String toString() {
         return "Cos";
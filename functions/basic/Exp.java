@@ -42,4 +42,24 @@ public class Exp implements Function {
         // Экспонента определена для всех действительных чисел
         return Math.exp(x);
     }
+
+    /**
+     * Вычисляет экспоненту сразу для массива точек
+     */
+    @Override
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            out[outOffset + i] = Math.exp(xs[xsOffset + i]);
+        }
+    }
+
+    /**
+     * Вычисляет экспоненту, которая совпадает со своей производной
+     */
+    @Override
+    public void getValueAndDerivative(double x, double[] result) {
+        double exp = Math.exp(x);
+        result[0] = exp;
+        result[1] = exp;
+    }
 }
@@ -57,6 +57,18 @@ public class Log implements Function {
         return Math.log(x) / Math.log(base);
     }
 
+    /**
+     * Вычисляет логарифм сразу для массива точек, ln(base) вычисляется один раз
+     */
+    @Override
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        double logBase = Math.log(base);
+        for (int i = 0; i < length; i++) {
+            double x = xs[xsOffset + i];
+            out[outOffset + i] = x <= 0 ? Double.NaN : Math.log(x) / logBase;
+        }
+    }
+
     /**
      * Возвращает основание логарифма
      * @return основание логарифма
@@ -65,6 +77,21 @@ public class Log implements Function {
         return base;
     }
 
+    /**
+     * Вычисляет логарифм и его производную 1 / (x * ln(base))
+     */
+    @Override
+    public void getValueAndDerivative(double x, double[] result) {
+        if (x <= 0) {
+            result[0] = Double.NaN;
+            result[1] = Double.NaN;
+            return;
+        }
+        double logBase = Math.log(base);
+        result[0] = Math.log(x) / logBase;
+        result[1] = 1 / (x * logBase);
+    }
+
     @Override
     public String toString() {
         return "Log(base=" + base + ")";
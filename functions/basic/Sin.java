@@ -23,6 +23,25 @@ public class Sin extends TrigonometricFunction {
         return Math.sin(x);
     }
 
+    /**
+     * Вычисляет синус сразу для массива точек
+     */
+    @Override
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            out[outOffset + i] = Math.sin(xs[xsOffset + i]);
+        }
+    }
+
+    /**
+     * Вычисляет синус и его производную cos(x)
+     */
+    @Override
+    public void getValueAndDerivative(double x, double[] result) {
+        result[0] = Math.sin(x);
+        result[1] = Math.cos(x);
+    }
+
     @Override
     public String toString() {
         return "Sin";
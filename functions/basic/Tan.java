@@ -24,6 +24,26 @@ public class Tan extends TrigonometricFunction {
         return Math.tan(x);
     }
 
+    /**
+     * Вычисляет тангенс сразу для массива точек
+     */
+    @Override
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            out[outOffset + i] = Math.tan(xs[xsOffset + i]);
+        }
+    }
+
+    /**
+     * Вычисляет тангенс и его производную 1 + tg^2(x)
+     */
+    @Override
+    public void getValueAndDerivative(double x, double[] result) {
+        double tan = Math.tan(x);
+        result[0] = tan;
+        result[1] = 1 + tan * tan;
+    }
+
     @Override
     public String toString() {
         return "Tan";
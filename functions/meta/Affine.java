@@ -0,0 +1,212 @@
+package functions.meta;
+
+import functions.DomainCache;
+import functions.Function;
+import functions.Functions;
+
+/**
+ * Класс для аффинного преобразования функции по обеим осям:
+ * f(x) = yScale * g(xScale * x + xShift) + yShift.
+ * Объединяет в одном узле цепочку сдвигов и масштабирований, см. {@link Functions#optimize}.
+ */
+public class Affine implements Function {
+    private final Function function;
+    private final double xScale;
+    private final double xShift;
+    private final double yScale;
+    private final double yShift;
+    private final DomainCache domain;
+
+    /**
+     * Конструктор аффинно преобразованной функции
+     * @param function исходная функция
+     * @param xScale коэффициент масштабирования по оси X
+     * @param xShift сдвиг аргумента после масштабирования
+     * @param yScale коэффициент масштабирования по оси Y
+     * @param yShift сдвиг по оси Y после масштабирования
+     */
+    public Affine(Function function, double xScale, double xShift, double yScale, double yShift) {
+        if (function == null) {
+            throw new IllegalArgumentException("Функция не может быть null");
+        }
+        if (Math.abs(xScale) < 1e-10) {
+            throw new IllegalArgumentException("Коэффициент масштабирования X не может быть нулевым");
+        }
+        if (Math.abs(yScale) < 1e-10) {
+            throw new IllegalArgumentException("Коэффициент масштабирования Y не может быть нулевым");
+        }
+
+        this.function = function;
+        this.xScale = xScale;
+        this.xShift = xShift;
+        this.yScale = yScale;
+        this.yShift = yShift;
+        this.domain = new DomainCache(this::computeLeftDomainBorder, this::computeRightDomainBorder, function);
+    }
+
+    /**
+     * Возвращает левую границу области определения
+     * @return прообраз соответствующей границы исходной функции
+     */
+    @Override
+    public double getLeftDomainBorder() {
+        return domain.getLeft();
+    }
+
+    /**
+     * Возвращает правую границу области определения
+     * @return прообраз соответствующей границы исходной функции
+     */
+    @Override
+    public double getRightDomainBorder() {
+        return domain.getRight();
+    }
+
+    private double computeLeftDomainBorder() {
+        if (xScale > 0) {
+            return (function.getLeftDomainBorder() - xShift) / xScale;
+        } else {
+            // Если xScale отрицательный, происходит отражение
+            return (function.getRightDomainBorder() - xShift) / xScale;
+        }
+    }
+
+    private double computeRightDomainBorder() {
+        if (xScale > 0) {
+            return (function.getRightDomainBorder() - xShift) / xScale;
+        } else {
+            // Если xScale отрицательный, происходит отражение
+            return (function.getLeftDomainBorder() - xShift) / xScale;
+        }
+    }
+
+    /**
+     * Вычисляет значение преобразованной функции в заданной точке
+     * @param x точка, в которой вычисляется значение
+     * @return yScale * g(xScale * x + xShift) + yShift или Double.NaN если x вне области определения
+     */
+    @Override
+    public double getFunctionValue(double x) {
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+            return Double.NaN;
+        }
+
+        double argument = xScale * x + xShift;
+
+        // Проверяем, что преобразованная точка в области определения исходной функции
+        if (argument < function.getLeftDomainBorder() || argument > function.getRightDomainBorder()) {
+            return Double.NaN;
+        }
+
+        double originalValue = function.getFunctionValue(argument);
+
+        if (Double.isNaN(originalValue)) {
+            return Double.NaN;
+        }
+
+        return yScale * originalValue + yShift;
+    }
+
+    /**
+     * Вычисляет преобразованную функцию для массива точек: преобразованные аргументы блока
+     * записываются в буфер, исходная функция вычисляется для буфера целиком
+     */
+    @Override
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        double left = getLeftDomainBorder();
+        double right = getRightDomainBorder();
+        double innerLeft = function.getLeftDomainBorder();
+        double innerRight = function.getRightDomainBorder();
+        int block = Math.min(length, Functions.BATCH_BLOCK_SIZE);
+        double[] arguments = new double[block];
+        double[] values = new double[block];
+
+        for (int start = 0; start < length; start += block) {
+            int count = Math.min(block, length - start);
+            for (int i = 0; i < count; i++) {
+                arguments[i] = xScale * xs[xsOffset + start + i] + xShift;
+            }
+            function.getFunctionValues(arguments, 0, values, 0, count);
+
+            for (int i = 0; i < count; i++) {
+                double x = xs[xsOffset + start + i];
+                double argument = arguments[i];
+                boolean defined = !(x < left || x > right)
+                        && !(argument < innerLeft || argument > innerRight);
+                out[outOffset + start + i] = defined ? yScale * values[i] + yShift : Double.NaN;
+            }
+        }
+    }
+
+    /**
+     * Вычисляет преобразованную функцию и её производную yScale * xScale * g'(xScale * x + xShift)
+     */
+    @Override
+    public void getValueAndDerivative(double x, double[] result) {
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+            result[0] = Double.NaN;
+            result[1] = Double.NaN;
+            return;
+        }
+
+        double argument = xScale * x + xShift;
+        if (argument < function.getLeftDomainBorder() || argument > function.getRightDomainBorder()) {
+            result[0] = Double.NaN;
+            result[1] = Double.NaN;
+            return;
+        }
+
+        function.getValueAndDerivative(argument, result);
+        if (Double.isNaN(result[0])) {
+            result[1] = Double.NaN;
+            return;
+        }
+        result[0] = yScale * result[0] + yShift;
+        result[1] = yScale * xScale * result[1];
+    }
+
+    /**
+     * Возвращает исходную функцию
+     * @return исходная функция
+     */
+    public Function getFunction() {
+        return function;
+    }
+
+    /**
+     * Возвращает коэффициент масштабирования по X
+     * @return коэффициент масштабирования по X
+     */
+    public double getXScale() {
+        return xScale;
+    }
+
+    /**
+     * Возвращает сдвиг аргумента
+     * @return сдвиг аргумента
+     */
+    public double getXShift() {
+        return xShift;
+    }
+
+    /**
+     * Возвращает коэффициент масштабирования по Y
+     * @return коэффициент масштабирования по Y
+     */
+    public double getYScale() {
+        return yScale;
+    }
+
+    /**
+     * Возвращает сдвиг по Y
+     * @return сдвиг по Y
+     */
+    public double getYShift() {
+        return yShift;
+    }
+
+    @Override
+    public String toString() {
+        return yScale + " * " + function + "(" + xScale + " * x + " + xShift + ") + " + yShift;
+    }
+}
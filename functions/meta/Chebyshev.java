@@ -0,0 +1,244 @@
+package functions.meta;
+
+import functions.Function;
+import functions.Functions;
+
+/**
+ * Класс для разложения по многочленам Чебышёва на отрезке [a, b]:
+ * f(x) = c0*T0(t) + c1*T1(t) + ... + cn*Tn(t), где t = (2x - a - b) / (b - a).
+ * Значение вычисляется по рекуррентной схеме Кленшоу за n умножений и 2n сложений.
+ * Область определения - отрезок [a, b]. Приближение гладкой функции строится
+ * методом {@link Functions#chebyshev(Function, double, double, double)}.
+ */
+public class Chebyshev implements Function {
+    private final double a;
+    private final double b;
+    // Коэффициенты начиная с c0, старший коэффициент не равен нулю
+    // (кроме разложения, тождественно равного нулю)
+    private final double[] coefficients;
+
+    /**
+     * Конструктор разложения по многочленам Чебышёва
+     * @param a левая граница отрезка
+     * @param b правая граница отрезка
+     * @param coefficients коэффициенты начиная с c0; массив копируется
+     * @throws IllegalArgumentException если a >= b, границы бесконечны или массив равен null или пуст
+     */
+    public Chebyshev(double a, double b, double[] coefficients) {
+        if (!(a < b) || Double.isInfinite(a) || Double.isInfinite(b)) {
+            throw new IllegalArgumentException("Границы отрезка должны быть конечными и a < b");
+        }
+        if (coefficients == null) {
+            throw new IllegalArgumentException("Массив коэффициентов не может быть null");
+        }
+        if (coefficients.length == 0) {
+            throw new IllegalArgumentException("Массив коэффициентов не может быть пустым");
+        }
+
+        int length = coefficients.length;
+        while (length > 1 && coefficients[length - 1] == 0) {
+            length--;
+        }
+        this.a = a;
+        this.b = b;
+        this.coefficients = new double[length];
+        System.arraycopy(coefficients, 0, this.coefficients, 0, length);
+    }
+
+    @Override
+    public double getLeftDomainBorder() {
+        return a;
+    }
+
+    @Override
+    public double getRightDomainBorder() {
+        return b;
+    }
+
+    /**
+     * Вычисляет значение разложения по схеме Кленшоу
+     * @param x точка, в которой вычисляется значение
+     * @return значение разложения или Double.NaN если x вне [a, b]
+     */
+    @Override
+    public double getFunctionValue(double x) {
+        if (x < a || x > b) {
+            return Double.NaN;
+        }
+
+        double t = (2 * x - a - b) / (b - a);
+        double t2 = 2 * t;
+        double b1 = 0;
+        double b2 = 0;
+        for (int k = coefficients.length - 1; k >= 1; k--) {
+            double next = t2 * b1 - b2 + coefficients[k];
+            b2 = b1;
+            b1 = next;
+        }
+        return t * b1 - b2 + coefficients[0];
+    }
+
+    /**
+     * Вычисляет разложение для массива точек. Внешний цикл идёт по коэффициентам,
+     * внутренний - по точкам блока; порядок операций для каждой точки тот же,
+     * что и в getFunctionValue
+     */
+    @Override
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        int n = coefficients.length - 1;
+        int block = Math.min(length, Functions.BATCH_BLOCK_SIZE);
+        double[] ts = new double[block];
+        double[] b1 = new double[block];
+        double[] b2 = new double[block];
+
+        for (int start = 0; start < length; start += block) {
+            int count = Math.min(block, length - start);
+            for (int i = 0; i < count; i++) {
+                ts[i] = (2 * xs[xsOffset + start + i] - a - b) / (b - a);
+            }
+            java.util.Arrays.fill(b1, 0, count, 0);
+            java.util.Arrays.fill(b2, 0, count, 0);
+
+            for (int k = n; k >= 1; k--) {
+                double c = coefficients[k];
+                for (int i = 0; i < count; i++) {
+                    double next = 2 * ts[i] * b1[i] - b2[i] + c;
+                    b2[i] = b1[i];
+                    b1[i] = next;
+                }
+            }
+
+            for (int i = 0; i < count; i++) {
+                double x = xs[xsOffset + start + i];
+                double value = ts[i] * b1[i] - b2[i] + coefficients[0];
+                out[outOffset + start + i] = (x < a || x > b) ? Double.NaN : value;
+            }
+        }
+    }
+
+    /**
+     * Вычисляет разложение и его производную одним проходом схемы Кленшоу:
+     * вместе с b(k) = 2t * b(k+1) - b(k+2) + c(k) вычисляются их производные по t
+     */
+    @Override
+    public void getValueAndDerivative(double x, double[] result) {
+        if (x < a || x > b) {
+            result[0] = Double.NaN;
+            result[1] = Double.NaN;
+            return;
+        }
+
+        double t = (2 * x - a - b) / (b - a);
+        double t2 = 2 * t;
+        double b1 = 0;
+        double b2 = 0;
+        double d1 = 0;
+        double d2 = 0;
+        for (int k = coefficients.length - 1; k >= 1; k--) {
+            double next = t2 * b1 - b2 + coefficients[k];
+            double nextDerivative = 2 * b1 + t2 * d1 - d2;
+            b2 = b1;
+            b1 = next;
+            d2 = d1;
+            d1 = nextDerivative;
+        }
+        result[0] = t * b1 - b2 + coefficients[0];
+        result[1] = (b1 + t * d1 - d2) * 2 / (b - a);
+    }
+
+    /**
+     * Возвращает производную разложения на том же отрезке
+     * @return разложение производной степени n - 1
+     */
+    public Chebyshev derivative() {
+        int n = coefficients.length - 1;
+        if (n == 0) {
+            return new Chebyshev(a, b, new double[]{0});
+        }
+
+        // d[k-1] = d[k+1] + 2k * c[k], начиная со старших коэффициентов
+        double[] result = new double[n + 2];
+        for (int k = n; k >= 1; k--) {
+            result[k - 1] = result[k + 1] + 2 * k * coefficients[k];
+        }
+        result[0] /= 2;
+
+        double scale = 2 / (b - a);
+        double[] scaled = new double[n];
+        for (int k = 0; k < n; k++) {
+            scaled[k] = result[k] * scale;
+        }
+        return new Chebyshev(a, b, scaled);
+    }
+
+    /**
+     * Возвращает первообразную разложения на том же отрезке, равную нулю в точке a
+     * @return разложение первообразной степени n + 1
+     */
+    public Chebyshev antiderivative() {
+        int n = coefficients.length - 1;
+        double[] c = new double[n + 3];
+        System.arraycopy(coefficients, 0, c, 0, n + 1);
+
+        // Интеграл T0 = T1, интеграл Tk = T(k+1) / (2(k+1)) - T(k-1) / (2(k-1)) для k >= 2, интеграл T1 = T2 / 4
+        double scale = (b - a) / 2;
+        double[] result = new double[n + 2];
+        result[1] = (c[0] - c[2] / 2) * scale;
+        for (int k = 2; k <= n + 1; k++) {
+            result[k] = (c[k - 1] - c[k + 1]) / (2 * k) * scale;
+        }
+
+        // Свободный член выбирается так, чтобы первообразная обращалась в ноль при t = -1
+        double atLeft = 0;
+        for (int k = 1; k <= n + 1; k++) {
+            atLeft += (k % 2 == 0) ? result[k] : -result[k];
+        }
+        result[0] = -atLeft;
+        return new Chebyshev(a, b, result);
+    }
+
+    /**
+     * Вычисляет определённый интеграл разложения через первообразную
+     * @param from нижний предел интегрирования
+     * @param to верхний предел интегрирования
+     * @return значение интеграла или Double.NaN если пределы вне [a, b]
+     */
+    public double integrate(double from, double to) {
+        Chebyshev antiderivative = antiderivative();
+        return antiderivative.getFunctionValue(to) - antiderivative.getFunctionValue(from);
+    }
+
+    /**
+     * Вычисляет интеграл разложения по всему отрезку [a, b] без построения первообразной:
+     * интеграл T(k) по [-1, 1] равен 2 / (1 - k^2) для чётных k и нулю для нечётных
+     * @return значение интеграла от a до b
+     */
+    public double integrate() {
+        double sum = 0;
+        for (int k = 0; k < coefficients.length; k += 2) {
+            sum += coefficients[k] * 2 / (1 - (double) k * k);
+        }
+        return sum * (b - a) / 2;
+    }
+
+    /**
+     * Возвращает степень разложения
+     * @return степень (0 для константы)
+     */
+    public int getDegree() {
+        return coefficients.length - 1;
+    }
+
+    /**
+     * Возвращает коэффициенты разложения
+     * @return копия массива коэффициентов начиная с c0
+     */
+    public double[] getCoefficients() {
+        return coefficients.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "Chebyshev([" + a + ", " + b + "], degree " + getDegree() + ")";
+    }
+}
@@ -1,6 +1,8 @@
 package functions.meta;
 
+import functions.DomainCache;
 import functions.Function;
+import functions.Functions;
 
 /**
  * Класс для композиции двух функций: f(x) = g(h(x))
@@ -8,6 +10,7 @@ import functions.Function;
 public class Composition implements Function {
     private final Function outer; // Внешняя функция g
     private final Function inner; // Внутренняя функция h
+    private final DomainCache domain;
 
     /**
      * Конструктор композиции функций
@@ -20,6 +23,7 @@ public class Composition implements Function {
         }
         this.outer = outer;
         this.inner = inner;
+        this.domain = new DomainCache(this::computeLeftDomainBorder, this::computeRightDomainBorder, outer, inner);
     }
 
     /**
@@ -28,7 +32,7 @@ public class Composition implements Function {
      */
     @Override
     public double getLeftDomainBorder() {
-        return inner.getLeftDomainBorder();
+        return domain.getLeft();
     }
 
     /**
@@ -37,6 +41,14 @@ public class Composition implements Function {
      */
     @Override
     public double getRightDomainBorder() {
+        return domain.getRight();
+    }
+
+    private double computeLeftDomainBorder() {
+        return inner.getLeftDomainBorder();
+    }
+
+    private double computeRightDomainBorder() {
         return inner.getRightDomainBorder();
     }
 
@@ -69,6 +81,60 @@ public class Composition implements Function {
         return outer.getFunctionValue(innerValue);
     }
 
+    /**
+     * Вычисляет композицию для массива точек: сначала внутренняя функция для всего блока,
+     * затем внешняя функция для полученных значений
+     */
+    @Override
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        double left = getLeftDomainBorder();
+        double right = getRightDomainBorder();
+        double outerLeft = outer.getLeftDomainBorder();
+        double outerRight = outer.getRightDomainBorder();
+        int block = Math.min(length, Functions.BATCH_BLOCK_SIZE);
+        double[] innerValues = new double[block];
+        double[] outerValues = new double[block];
+
+        for (int start = 0; start < length; start += block) {
+            int count = Math.min(block, length - start);
+            inner.getFunctionValues(xs, xsOffset + start, innerValues, 0, count);
+            outer.getFunctionValues(innerValues, 0, outerValues, 0, count);
+
+            for (int i = 0; i < count; i++) {
+                double x = xs[xsOffset + start + i];
+                double innerValue = innerValues[i];
+                boolean defined = !(x < left || x > right) && !Double.isNaN(innerValue)
+                        && !(innerValue < outerLeft || innerValue > outerRight);
+                out[outOffset + start + i] = defined ? outerValues[i] : Double.NaN;
+            }
+        }
+    }
+
+    /**
+     * Вычисляет композицию и её производную по цепному правилу outer'(inner(x)) * inner'(x)
+     */
+    @Override
+    public void getValueAndDerivative(double x, double[] result) {
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+            result[0] = Double.NaN;
+            result[1] = Double.NaN;
+            return;
+        }
+
+        inner.getValueAndDerivative(x, result);
+        double innerValue = result[0];
+        double innerDerivative = result[1];
+        if (Double.isNaN(innerValue)
+                || innerValue < outer.getLeftDomainBorder() || innerValue > outer.getRightDomainBorder()) {
+            result[0] = Double.NaN;
+            result[1] = Double.NaN;
+            return;
+        }
+
+        outer.getValueAndDerivative(innerValue, result);
+        result[1] *= innerDerivative;
+    }
+
     /**
      * Возвращает внешнюю функцию
      * @return внешняя функция
@@ -0,0 +1,167 @@
+package functions.meta;
+
+import functions.DomainCache;
+import functions.Function;
+import functions.Functions;
+
+/**
+ * Класс для произведения произвольного числа функций: f(x) = g1(x) * g2(x) * ... * gn(x).
+ * Заменяет цепочку вложенных Mult одним узлом, см. {@link Functions#optimize}.
+ */
+public class NaryMult implements Function {
+    private final Function[] factors;
+    private final DomainCache domain;
+
+    /**
+     * Конструктор произведения функций
+     * @param factors сомножители (не менее двух); массив копируется
+     */
+    public NaryMult(Function... factors) {
+        if (factors == null || factors.length < 2) {
+            throw new IllegalArgumentException("Произведение должно содержать не менее двух функций");
+        }
+        for (Function factor : factors) {
+            if (factor == null) {
+                throw new IllegalArgumentException("Функции не могут быть null");
+            }
+        }
+        this.factors = factors.clone();
+        this.domain = new DomainCache(this::computeLeftDomainBorder, this::computeRightDomainBorder, factors);
+    }
+
+    /**
+     * Возвращает левую границу области определения
+     * @return максимум левых границ сомножителей
+     */
+    @Override
+    public double getLeftDomainBorder() {
+        return domain.getLeft();
+    }
+
+    /**
+     * Возвращает правую границу области определения
+     * @return минимум правых границ сомножителей
+     */
+    @Override
+    public double getRightDomainBorder() {
+        return domain.getRight();
+    }
+
+    private double computeLeftDomainBorder() {
+        double left = factors[0].getLeftDomainBorder();
+        for (int i = 1; i < factors.length; i++) {
+            left = Math.max(left, factors[i].getLeftDomainBorder());
+        }
+        return left;
+    }
+
+    private double computeRightDomainBorder() {
+        double right = factors[0].getRightDomainBorder();
+        for (int i = 1; i < factors.length; i++) {
+            right = Math.min(right, factors[i].getRightDomainBorder());
+        }
+        return right;
+    }
+
+    /**
+     * Вычисляет значение произведения функций в заданной точке
+     * @param x точка, в которой вычисляется значение
+     * @return произведение значений сомножителей или Double.NaN если x вне области определения
+     */
+    @Override
+    public double getFunctionValue(double x) {
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+            return Double.NaN;
+        }
+
+        double product = 0;
+        for (int i = 0; i < factors.length; i++) {
+            double value = factors[i].getFunctionValue(x);
+            if (Double.isNaN(value)) {
+                return Double.NaN;
+            }
+            product = i == 0 ? value : product * value;
+        }
+        return product;
+    }
+
+    /**
+     * Вычисляет произведение для массива точек: сомножители вычисляются поблочно
+     * и накапливаются в буфере, границы области определения определяются один раз.
+     */
+    @Override
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        double left = getLeftDomainBorder();
+        double right = getRightDomainBorder();
+        int block = Math.min(length, Functions.BATCH_BLOCK_SIZE);
+        double[] products = new double[block];
+        double[] values = new double[block];
+
+        for (int start = 0; start < length; start += block) {
+            int count = Math.min(block, length - start);
+            factors[0].getFunctionValues(xs, xsOffset + start, products, 0, count);
+            for (int f = 1; f < factors.length; f++) {
+                factors[f].getFunctionValues(xs, xsOffset + start, values, 0, count);
+                for (int i = 0; i < count; i++) {
+                    products[i] *= values[i];
+                }
+            }
+
+            for (int i = 0; i < count; i++) {
+                double x = xs[xsOffset + start + i];
+                out[outOffset + start + i] = (x < left || x > right) ? Double.NaN : products[i];
+            }
+        }
+    }
+
+    /**
+     * Вычисляет произведение и его производную, накапливая (p * g)' = p' * g + p * g'
+     */
+    @Override
+    public void getValueAndDerivative(double x, double[] result) {
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+            result[0] = Double.NaN;
+            result[1] = Double.NaN;
+            return;
+        }
+
+        double product = 0;
+        double derivative = 0;
+        for (int i = 0; i < factors.length; i++) {
+            factors[i].getValueAndDerivative(x, result);
+            if (Double.isNaN(result[0])) {
+                result[1] = Double.NaN;
+                return;
+            }
+            if (i == 0) {
+                product = result[0];
+                derivative = result[1];
+            } else {
+                derivative = derivative * result[0] + product * result[1];
+                product = product * result[0];
+            }
+        }
+        result[0] = product;
+        result[1] = derivative;
+    }
+
+    /**
+     * Возвращает сомножители
+     * @return копия массива сомножителей
+     */
+    public Function[] getFactors() {
+        return factors.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("(");
+        for (int i = 0; i < factors.length; i++) {
+            if (i > 0) {
+                result.append(" * ");
+            }
+            result.append(factors[i]);
+        }
+        return result.append(")").toString();
+    }
+}
@@ -0,0 +1,162 @@
+package functions.meta;
+
+import functions.DomainCache;
+import functions.Function;
+import functions.Functions;
+
+/**
+ * Класс для суммы произвольного числа функций: f(x) = g1(x) + g2(x) + ... + gn(x).
+ * Заменяет цепочку вложенных Sum одним узлом, см. {@link Functions#optimize}.
+ */
+public class NarySum implements Function {
+    private final Function[] terms;
+    private final DomainCache domain;
+
+    /**
+     * Конструктор суммы функций
+     * @param terms слагаемые (не менее двух); массив копируется
+     */
+    public NarySum(Function... terms) {
+        if (terms == null || terms.length < 2) {
+            throw new IllegalArgumentException("Сумма должна содержать не менее двух функций");
+        }
+        for (Function term : terms) {
+            if (term == null) {
+                throw new IllegalArgumentException("Функции не могут быть null");
+            }
+        }
+        this.terms = terms.clone();
+        this.domain = new DomainCache(this::computeLeftDomainBorder, this::computeRightDomainBorder, terms);
+    }
+
+    /**
+     * Возвращает левую границу области определения
+     * @return максимум левых границ слагаемых
+     */
+    @Override
+    public double getLeftDomainBorder() {
+        return domain.getLeft();
+    }
+
+    /**
+     * Возвращает правую границу области определения
+     * @return минимум правых границ слагаемых
+     */
+    @Override
+    public double getRightDomainBorder() {
+        return domain.getRight();
+    }
+
+    private double computeLeftDomainBorder() {
+        double left = terms[0].getLeftDomainBorder();
+        for (int i = 1; i < terms.length; i++) {
+            left = Math.max(left, terms[i].getLeftDomainBorder());
+        }
+        return left;
+    }
+
+    private double computeRightDomainBorder() {
+        double right = terms[0].getRightDomainBorder();
+        for (int i = 1; i < terms.length; i++) {
+            right = Math.min(right, terms[i].getRightDomainBorder());
+        }
+        return right;
+    }
+
+    /**
+     * Вычисляет значение суммы функций в заданной точке
+     * @param x точка, в которой вычисляется значение
+     * @return сумма значений слагаемых или Double.NaN если x вне области определения
+     */
+    @Override
+    public double getFunctionValue(double x) {
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+            return Double.NaN;
+        }
+
+        double sum = 0;
+        for (int i = 0; i < terms.length; i++) {
+            double value = terms[i].getFunctionValue(x);
+            if (Double.isNaN(value)) {
+                return Double.NaN;
+            }
+            sum = i == 0 ? value : sum + value;
+        }
+        return sum;
+    }
+
+    /**
+     * Вычисляет сумму для массива точек: слагаемые вычисляются поблочно
+     * и накапливаются в буфере, границы области определения определяются один раз.
+     */
+    @Override
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        double left = getLeftDomainBorder();
+        double right = getRightDomainBorder();
+        int block = Math.min(length, Functions.BATCH_BLOCK_SIZE);
+        double[] sums = new double[block];
+        double[] values = new double[block];
+
+        for (int start = 0; start < length; start += block) {
+            int count = Math.min(block, length - start);
+            terms[0].getFunctionValues(xs, xsOffset + start, sums, 0, count);
+            for (int t = 1; t < terms.length; t++) {
+                terms[t].getFunctionValues(xs, xsOffset + start, values, 0, count);
+                for (int i = 0; i < count; i++) {
+                    sums[i] += values[i];
+                }
+            }
+
+            for (int i = 0; i < count; i++) {
+                double x = xs[xsOffset + start + i];
+                out[outOffset + start + i] = (x < left || x > right) ? Double.NaN : sums[i];
+            }
+        }
+    }
+
+    /**
+     * Вычисляет сумму и её производную - сумму производных слагаемых
+     */
+    @Override
+    public void getValueAndDerivative(double x, double[] result) {
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+            result[0] = Double.NaN;
+            result[1] = Double.NaN;
+            return;
+        }
+
+        double sum = 0;
+        double derivative = 0;
+        for (int i = 0; i < terms.length; i++) {
+            terms[i].getValueAndDerivative(x, result);
+            if (Double.isNaN(result[0])) {
+                result[1] = Double.NaN;
+                return;
+            }
+            sum = i == 0 ? result[0] : sum + result[0];
+            derivative = i == 0 ? result[1] : derivative + result[1];
+        }
+        result[0] = sum;
+        result[1] = derivative;
+    }
+
+    /**
+     * Возвращает слагаемые
+     * @return копия массива слагаемых
+     */
+    public Function[] getTerms() {
+        return terms.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("(");
+        for (int i = 0; i < terms.length; i++) {
+            if (i > 0) {
+                result.append(" + ");
+            }
+            result.append(terms[i]);
+        }
+        return result.append(")").toString();
+    }
+}
@@ -0,0 +1,180 @@
+package functions.meta;
+
+import functions.Function;
+import functions.Functions;
+
+/**
+ * Класс для многочлена f(x) = c0 + c1*x + c2*x^2 + ... + cn*x^n,
+ * вычисляемого по схеме Горнера: n умножений и n сложений без вызовов Math.pow.
+ * Область определения - вся числовая прямая.
+ */
+public class Polynomial implements Function {
+    // Коэффициенты начиная со свободного члена, старший коэффициент не равен нулю
+    // (кроме многочлена, тождественно равного нулю)
+    private final double[] coefficients;
+
+    /**
+     * Конструктор многочлена
+     * @param coefficients коэффициенты начиная со свободного члена; массив копируется
+     * @throws IllegalArgumentException если массив равен null или пуст
+     */
+    public Polynomial(double[] coefficients) {
+        if (coefficients == null) {
+            throw new IllegalArgumentException("Массив коэффициентов не может быть null");
+        }
+        if (coefficients.length == 0) {
+            throw new IllegalArgumentException("Массив коэффициентов не может быть пустым");
+        }
+
+        // Нулевые старшие коэффициенты не влияют на значение и отбрасываются
+        int length = coefficients.length;
+        while (length > 1 && coefficients[length - 1] == 0) {
+            length--;
+        }
+        this.coefficients = new double[length];
+        System.arraycopy(coefficients, 0, this.coefficients, 0, length);
+    }
+
+    /**
+     * Возвращает левую границу области определения
+     * @return Double.NEGATIVE_INFINITY
+     */
+    @Override
+    public double getLeftDomainBorder() {
+        return Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Возвращает правую границу области определения
+     * @return Double.POSITIVE_INFINITY
+     */
+    @Override
+    public double getRightDomainBorder() {
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Вычисляет значение многочлена по схеме Горнера
+     * @param x точка, в которой вычисляется значение
+     * @return значение многочлена в точке x
+     */
+    @Override
+    public double getFunctionValue(double x) {
+        int n = coefficients.length - 1;
+        double result = coefficients[n];
+        for (int k = n - 1; k >= 0; k--) {
+            result = result * x + coefficients[k];
+        }
+        return result;
+    }
+
+    /**
+     * Вычисляет многочлен для массива точек. Внешний цикл идёт по коэффициентам,
+     * внутренний - по точкам блока, что позволяет JIT векторизовать внутренний цикл;
+     * порядок операций для каждой точки тот же, что и в getFunctionValue
+     */
+    @Override
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        int n = coefficients.length - 1;
+        int block = Math.min(length, Functions.BATCH_BLOCK_SIZE);
+        // Копия аргументов нужна, так как xs и out могут совпадать
+        double[] arguments = new double[block];
+
+        for (int start = 0; start < length; start += block) {
+            int count = Math.min(block, length - start);
+            int from = outOffset + start;
+            System.arraycopy(xs, xsOffset + start, arguments, 0, count);
+            java.util.Arrays.fill(out, from, from + count, coefficients[n]);
+
+            for (int k = n - 1; k >= 0; k--) {
+                double c = coefficients[k];
+                for (int i = 0; i < count; i++) {
+                    out[from + i] = out[from + i] * arguments[i] + c;
+                }
+            }
+        }
+    }
+
+    /**
+     * Вычисляет многочлен и его производную одним проходом схемы Горнера
+     */
+    @Override
+    public void getValueAndDerivative(double x, double[] result) {
+        int n = coefficients.length - 1;
+        double value = coefficients[n];
+        double derivative = 0;
+        for (int k = n - 1; k >= 0; k--) {
+            derivative = derivative * x + value;
+            value = value * x + coefficients[k];
+        }
+        result[0] = value;
+        result[1] = derivative;
+    }
+
+    /**
+     * Возвращает производную многочлена
+     * @return многочлен c1 + 2*c2*x + ... + n*cn*x^(n-1)
+     */
+    public Polynomial derivative() {
+        int n = coefficients.length - 1;
+        if (n == 0) {
+            return new Polynomial(new double[]{0});
+        }
+        double[] result = new double[n];
+        for (int k = 1; k <= n; k++) {
+            result[k - 1] = k * coefficients[k];
+        }
+        return new Polynomial(result);
+    }
+
+    /**
+     * Возвращает первообразную многочлена с нулевым свободным членом
+     * @return многочлен c0*x + c1*x^2/2 + ... + cn*x^(n+1)/(n+1)
+     */
+    public Polynomial antiderivative() {
+        double[] result = new double[coefficients.length + 1];
+        for (int k = 0; k < coefficients.length; k++) {
+            result[k + 1] = coefficients[k] / (k + 1);
+        }
+        return new Polynomial(result);
+    }
+
+    /**
+     * Вычисляет определённый интеграл многочлена через первообразную
+     * @param a нижний предел интегрирования
+     * @param b верхний предел интегрирования
+     * @return значение интеграла от a до b
+     */
+    public double integrate(double a, double b) {
+        Polynomial antiderivative = antiderivative();
+        return antiderivative.getFunctionValue(b) - antiderivative.getFunctionValue(a);
+    }
+
+    /**
+     * Возвращает степень многочлена
+     * @return степень (0 для константы)
+     */
+    public int getDegree() {
+        return coefficients.length - 1;
+    }
+
+    /**
+     * Возвращает коэффициенты многочлена
+     * @return копия массива коэффициентов начиная со свободного члена
+     */
+    public double[] getCoefficients() {
+        return coefficients.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("Polynomial(");
+        for (int k = 0; k < coefficients.length; k++) {
+            if (k > 0) {
+                result.append(", ");
+            }
+            result.append(coefficients[k]);
+        }
+        return result.append(")").toString();
+    }
+}
@@ -1,6 +1,8 @@
 package functions.meta;
 
+import functions.DomainCache;
 import functions.Function;
+import functions.Functions;
 
 /**
  * Класс для представления функции в степени: f(x) = [g(x)]^power
@@ -8,6 +10,7 @@ import functions.Function;
 public class Power implements Function {
     private final Function baseFunction;
     private final double power;
+    private final DomainCache domain;
 
     /**
      * Конструктор степени функции
@@ -20,6 +23,7 @@ public class Power implements Function {
         }
         this.baseFunction = baseFunction;
         this.power = power;
+        this.domain = new DomainCache(this::computeLeftDomainBorder, this::computeRightDomainBorder, baseFunction);
     }
 
     /**
@@ -28,7 +32,7 @@ public class Power implements Function {
      */
     @Override
     public double getLeftDomainBorder() {
-        return baseFunction.getLeftDomainBorder();
+        return domain.getLeft();
     }
 
     /**
@@ -37,6 +41,14 @@ public class Power implements Function {
      */
     @Override
     public double getRightDomainBorder() {
+        return domain.getRight();
+    }
+
+    private double computeLeftDomainBorder() {
+        return baseFunction.getLeftDomainBorder();
+    }
+
+    private double computeRightDomainBorder() {
         return baseFunction.getRightDomainBorder();
     }
 
@@ -68,6 +80,53 @@ public class Power implements Function {
         return Math.pow(baseValue, power);
     }
 
+    /**
+     * Вычисляет степень функции для массива точек через поблочное вычисление базовой функции
+     */
+    @Override
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        double left = getLeftDomainBorder();
+        double right = getRightDomainBorder();
+        int block = Math.min(length, Functions.BATCH_BLOCK_SIZE);
+        double[] baseValues = new double[block];
+
+        for (int start = 0; start < length; start += block) {
+            int count = Math.min(block, length - start);
+            baseFunction.getFunctionValues(xs, xsOffset + start, baseValues, 0, count);
+
+            for (int i = 0; i < count; i++) {
+                double x = xs[xsOffset + start + i];
+                double baseValue = baseValues[i];
+                // Math.pow(NaN, 0) = 1, поэтому NaN проверяется явно, как в getFunctionValue
+                out[outOffset + start + i] = (x < left || x > right || Double.isNaN(baseValue))
+                        ? Double.NaN
+                        : Math.pow(baseValue, power);
+            }
+        }
+    }
+
+    /**
+     * Вычисляет степень и её производную power * g^(power - 1) * g'
+     */
+    @Override
+    public void getValueAndDerivative(double x, double[] result) {
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+            result[0] = Double.NaN;
+            result[1] = Double.NaN;
+            return;
+        }
+
+        baseFunction.getValueAndDerivative(x, result);
+        double baseValue = result[0];
+        if (Double.isNaN(baseValue)) {
+            result[1] = Double.NaN;
+            return;
+        }
+        double baseDerivative = result[1];
+        result[0] = Math.pow(baseValue, power);
+        result[1] = power == 0 ? 0 : power * Math.pow(baseValue, power - 1) * baseDerivative;
+    }
+
     /**
      * Проверяет, является ли число целым
      * @param value число для проверки
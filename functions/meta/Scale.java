@@ -1,6 +1,8 @@
 package functions.meta;
 
+import functions.DomainCache;
 import functions.Function;
+import functions.Functions;
 
 /**
  * Класс для масштабирования функции вдоль осей координат:
@@ -10,6 +12,7 @@ public class Scale implements Function {
     private final Function function;
     private final double xScale;
     private final double yScale;
+    private final DomainCache domain;
 
     /**
      * Конструктор масштабированной функции
@@ -31,6 +34,7 @@ public class Scale implements Function {
         this.function = function;
         this.xScale = xScale;
         this.yScale = yScale;
+        this.domain = new DomainCache(this::computeLeftDomainBorder, this::computeRightDomainBorder, function);
     }
 
     /**
@@ -39,12 +43,7 @@ public class Scale implements Function {
      */
     @Override
     public double getLeftDomainBorder() {
-        if (xScale > 0) {
-            return function.getLeftDomainBorder() / xScale;
-        } else {
-            // Если xScale отрицательный, происходит отражение
-            return function.getRightDomainBorder() / xScale;
-        }
+        return domain.getLeft();
     }
 
     /**
@@ -53,6 +52,19 @@ public class Scale implements Function {
      */
     @Override
     public double getRightDomainBorder() {
+        return domain.getRight();
+    }
+
+    private double computeLeftDomainBorder() {
+        if (xScale > 0) {
+            return function.getLeftDomainBorder() / xScale;
+        } else {
+            // Если xScale отрицательный, происходит отражение
+            return function.getRightDomainBorder() / xScale;
+        }
+    }
+
+    private double computeRightDomainBorder() {
         if (xScale > 0) {
             return function.getRightDomainBorder() / xScale;
         } else {
@@ -90,6 +102,64 @@ public class Scale implements Function {
         return yScale * originalValue;
     }
 
+    /**
+     * Вычисляет масштабированную функцию для массива точек: преобразованные аргументы блока
+     * записываются в буфер, исходная функция вычисляется для буфера целиком
+     */
+    @Override
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        double left = getLeftDomainBorder();
+        double right = getRightDomainBorder();
+        double innerLeft = function.getLeftDomainBorder();
+        double innerRight = function.getRightDomainBorder();
+        int block = Math.min(length, Functions.BATCH_BLOCK_SIZE);
+        double[] arguments = new double[block];
+        double[] values = new double[block];
+
+        for (int start = 0; start < length; start += block) {
+            int count = Math.min(block, length - start);
+            for (int i = 0; i < count; i++) {
+                arguments[i] = xScale * xs[xsOffset + start + i];
+            }
+            function.getFunctionValues(arguments, 0, values, 0, count);
+
+            for (int i = 0; i < count; i++) {
+                double x = xs[xsOffset + start + i];
+                double argument = arguments[i];
+                boolean defined = !(x < left || x > right)
+                        && !(argument < innerLeft || argument > innerRight);
+                out[outOffset + start + i] = defined ? yScale * values[i] : Double.NaN;
+            }
+        }
+    }
+
+    /**
+     * Вычисляет масштабированную функцию и её производную yScale * xScale * g'(xScale * x)
+     */
+    @Override
+    public void getValueAndDerivative(double x, double[] result) {
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+            result[0] = Double.NaN;
+            result[1] = Double.NaN;
+            return;
+        }
+
+        double argument = xScale * x;
+        if (argument < function.getLeftDomainBorder() || argument > function.getRightDomainBorder()) {
+            result[0] = Double.NaN;
+            result[1] = Double.NaN;
+            return;
+        }
+
+        function.getValueAndDerivative(argument, result);
+        if (Double.isNaN(result[0])) {
+            result[1] = Double.NaN;
+            return;
+        }
+        result[0] = yScale * result[0];
+        result[1] = yScale * xScale * result[1];
+    }
+
     /**
      * Возвращает исходную функцию
      * @return исходная функция
@@ -1,6 +1,8 @@
 package functions.meta;
 
+import functions.DomainCache;
 import functions.Function;
+import functions.Functions;
 
 /**
  * Класс для сдвига функции вдоль осей координат:
@@ -10,6 +12,7 @@ public class Shift implements Function {
     private final Function function;
     private final double xShift;
     private final double yShift;
+    private final DomainCache domain;
 
     /**
      * Конструктор сдвинутой функции
@@ -24,6 +27,7 @@ public class Shift implements Function {
         this.function = function;
         this.xShift = xShift;
         this.yShift = yShift;
+        this.domain = new DomainCache(this::computeLeftDomainBorder, this::computeRightDomainBorder, function);
     }
 
     /**
@@ -32,7 +36,7 @@ public class Shift implements Function {
      */
     @Override
     public double getLeftDomainBorder() {
-        return function.getLeftDomainBorder() - xShift;
+        return domain.getLeft();
     }
 
     /**
@@ -41,6 +45,14 @@ public class Shift implements Function {
      */
     @Override
     public double getRightDomainBorder() {
+        return domain.getRight();
+    }
+
+    private double computeLeftDomainBorder() {
+        return function.getLeftDomainBorder() - xShift;
+    }
+
+    private double computeRightDomainBorder() {
         return function.getRightDomainBorder() - xShift;
     }
 
@@ -73,6 +85,63 @@ public class Shift implements Function {
         return yShift + originalValue;
     }
 
+    /**
+     * Вычисляет сдвинутую функцию для массива точек: преобразованные аргументы блока
+     * записываются в буфер, исходная функция вычисляется для буфера целиком
+     */
+    @Override
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        double left = getLeftDomainBorder();
+        double right = getRightDomainBorder();
+        double innerLeft = function.getLeftDomainBorder();
+        double innerRight = function.getRightDomainBorder();
+        int block = Math.min(length, Functions.BATCH_BLOCK_SIZE);
+        double[] arguments = new double[block];
+        double[] values = new double[block];
+
+        for (int start = 0; start < length; start += block) {
+            int count = Math.min(block, length - start);
+            for (int i = 0; i < count; i++) {
+                arguments[i] = xs[xsOffset + start + i] + xShift;
+            }
+            function.getFunctionValues(arguments, 0, values, 0, count);
+
+            for (int i = 0; i < count; i++) {
+                double x = xs[xsOffset + start + i];
+                double argument = arguments[i];
+                boolean defined = !(x < left || x > right)
+                        && !(argument < innerLeft || argument > innerRight);
+                out[outOffset + start + i] = defined ? yShift + values[i] : Double.NaN;
+            }
+        }
+    }
+
+    /**
+     * Вычисляет сдвинутую функцию и её производную g'(x + xShift)
+     */
+    @Override
+    public void getValueAndDerivative(double x, double[] result) {
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+            result[0] = Double.NaN;
+            result[1] = Double.NaN;
+            return;
+        }
+
+        double argument = x + xShift;
+        if (argument < function.getLeftDomainBorder() || argument > function.getRightDomainBorder()) {
+            result[0] = Double.NaN;
+            result[1] = Double.NaN;
+            return;
+        }
+
+        function.getValueAndDerivative(argument, result);
+        if (Double.isNaN(result[0])) {
+            result[1] = Double.NaN;
+            return;
+        }
+        result[0] = yShift + result[0];
+    }
+
     /**
      * Возвращает исходную функцию
      * @return исходная функция
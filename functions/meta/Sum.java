@@ -1,6 +1,8 @@
 package functions.meta;
 
+import functions.DomainCache;
 import functions.Function;
+import functions.Functions;
 
 /**
  * Класс для представления суммы двух функций: f(x) = g(x) + h(x)
@@ -8,6 +10,7 @@ import functions.Function;
 public class Sum implements Function {
     private final Function first;
     private final Function second;
+    private final DomainCache domain;
 
     /**
      * Конструктор суммы двух функций
@@ -20,6 +23,7 @@ public class Sum implements Function {
         }
         this.first = first;
         this.second = second;
+        this.domain = new DomainCache(this::computeLeftDomainBorder, this::computeRightDomainBorder, first, second);
     }
 
     /**
@@ -28,7 +32,7 @@ public class Sum implements Function {
      */
     @Override
     public double getLeftDomainBorder() {
-        return Math.max(first.getLeftDomainBorder(), second.getLeftDomainBorder());
+        return domain.getLeft();
     }
 
     /**
@@ -37,6 +41,14 @@ public class Sum implements Function {
      */
     @Override
     public double getRightDomainBorder() {
+        return domain.getRight();
+    }
+
+    private double computeLeftDomainBorder() {
+        return Math.max(first.getLeftDomainBorder(), second.getLeftDomainBorder());
+    }
+
+    private double computeRightDomainBorder() {
         return Math.min(first.getRightDomainBorder(), second.getRightDomainBorder());
     }
 
@@ -63,6 +75,57 @@ public class Sum implements Function {
         return value1 + value2;
     }
 
+    /**
+     * Вычисляет сумму для массива точек: обе функции вычисляются поблочно
+     * в промежуточные буферы, границы области определения определяются один раз.
+     */
+    @Override
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        double left = getLeftDomainBorder();
+        double right = getRightDomainBorder();
+        int block = Math.min(length, Functions.BATCH_BLOCK_SIZE);
+        double[] firstValues = new double[block];
+        double[] secondValues = new double[block];
+
+        for (int start = 0; start < length; start += block) {
+            int count = Math.min(block, length - start);
+            first.getFunctionValues(xs, xsOffset + start, firstValues, 0, count);
+            second.getFunctionValues(xs, xsOffset + start, secondValues, 0, count);
+
+            for (int i = 0; i < count; i++) {
+                double x = xs[xsOffset + start + i];
+                out[outOffset + start + i] = (x < left || x > right)
+                        ? Double.NaN
+                        : firstValues[i] + secondValues[i];
+            }
+        }
+    }
+
+    /**
+     * Вычисляет сумму и её производную f1' + f2'
+     */
+    @Override
+    public void getValueAndDerivative(double x, double[] result) {
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+            result[0] = Double.NaN;
+            result[1] = Double.NaN;
+            return;
+        }
+
+        first.getValueAndDerivative(x, result);
+        double value1 = result[0];
+        double derivative1 = result[1];
+        second.getValueAndDerivative(x, result);
+
+        if (Double.isNaN(value1) || Double.isNaN(result[0])) {
+            result[0] = Double.NaN;
+            result[1] = Double.NaN;
+            return;
+        }
+        result[0] = value1 + result[0];
+        result[1] = derivative1 + result[1];
+    }
+
     /**
      * Возвращает первую функцию
      * @return первая функция